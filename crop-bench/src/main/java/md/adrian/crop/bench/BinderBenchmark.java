@@ -0,0 +1,56 @@
+package md.adrian.crop.bench;
+
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.service.CriteriaOperatorBinder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.validation.DataBinder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The binding of request parameters to the pet search, by the crop binder and by the Spring data binder
+ * configured as for a web request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinderBenchmark {
+
+    private final Map<String, String[]> parameters = Map.of(
+        "birthdate.btw", new String[]{"2002-12-01,2010-01-11"},
+        "price.gte", new String[]{"8.2"},
+        "nickname.like", new String[]{"Ba"},
+        "type.in", new String[]{"cat", "dog"},
+        "active.eq", new String[]{"true"},
+        "size", new String[]{"20"}
+    );
+
+    private CriteriaOperatorBinder<PetCriteriaOperator> binder;
+    private DefaultFormattingConversionService conversionService;
+
+    @Setup
+    public void setUp() {
+        binder = CriteriaOperatorBinder.of(PetCriteriaOperator.class);
+        conversionService = new DefaultFormattingConversionService();
+    }
+
+    @Benchmark
+    public PetCriteriaOperator crop() {
+        return binder.bind(parameters);
+    }
+
+    @Benchmark
+    public PetCriteriaOperator spring() {
+        var dataBinder = new DataBinder(new PetCriteriaOperator());
+        dataBinder.setAutoGrowNestedPaths(true);
+        dataBinder.setConversionService(conversionService);
+        dataBinder.bind(new MutablePropertyValues(parameters));
+        return (PetCriteriaOperator) dataBinder.getTarget();
+    }
+}
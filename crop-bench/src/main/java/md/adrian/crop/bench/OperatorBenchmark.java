@@ -0,0 +1,124 @@
+package md.adrian.crop.bench;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import md.adrian.crop.operator.BigDecimalCriteriaOperator;
+import md.adrian.crop.operator.BooleanCriteriaOperator;
+import md.adrian.crop.operator.CriteriaOperatorParameters;
+import md.adrian.crop.operator.LocalDateCriteriaOperator;
+import md.adrian.crop.operator.LongCriteriaOperator;
+import md.adrian.crop.operator.StringCriteriaOperator;
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.petshop.domain.Pet_;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * The predicate construction of each operator type, without a query around it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperatorBenchmark {
+
+    private PetshopDatabase database;
+    private CriteriaBuilder criteriaBuilder;
+    private Expression<Long> id;
+    private Expression<String> name;
+    private Expression<BigDecimal> price;
+    private Expression<LocalDate> birthdate;
+    private Expression<Boolean> active;
+
+    private final LongCriteriaOperator idEq = new LongCriteriaOperator();
+    private final LongCriteriaOperator idIn = new LongCriteriaOperator();
+    private final LongCriteriaOperator idLargeIn = new LongCriteriaOperator();
+    private final StringCriteriaOperator nameLike = new StringCriteriaOperator();
+    private final BigDecimalCriteriaOperator priceBetween = new BigDecimalCriteriaOperator();
+    private final LocalDateCriteriaOperator birthdateGte = new LocalDateCriteriaOperator();
+    private final BooleanCriteriaOperator activeEq = new BooleanCriteriaOperator();
+
+    @Setup
+    public void setUp() {
+        database = new PetshopDatabase(0);
+        criteriaBuilder = database.getEntityManagerFactory().getCriteriaBuilder();
+        Root<Pet> root = criteriaBuilder.createQuery(Pet.class).from(Pet.class);
+        id = root.get(Pet_.id);
+        name = root.get(Pet_.name);
+        price = root.get(Pet_.price);
+        birthdate = root.get(Pet_.birthdate);
+        active = root.get(Pet_.active);
+
+        idEq.setEq(42L);
+        idIn.setIn(LongStream.rangeClosed(1, 10).boxed().toList());
+        idLargeIn.setIn(LongStream.rangeClosed(1, 1_000).map(i -> i % 4 == 0 ? i * 3 : i).boxed().toList());
+        nameLike.setLike("Pet1");
+        priceBetween.setBtw(List.of(new BigDecimal("10.00"), new BigDecimal("20.00")));
+        birthdateGte.setGte(LocalDate.of(2010, 1, 1));
+        activeEq.setEq(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Predicate eq() {
+        return idEq.match(criteriaBuilder, id);
+    }
+
+    @Benchmark
+    public Predicate in() {
+        return idIn.match(criteriaBuilder, id);
+    }
+
+    /**
+     * The normalization and the binding of an {@code in} of a thousand ids, in runs of three and scattered values,
+     * as done for each execution of a cached query.
+     */
+    @Benchmark
+    public void bindLargeIn(Blackhole blackhole) {
+        idLargeIn.normalized().bind(new CriteriaOperatorParameters() {
+            @Override
+            public void bind(String name, Object value) {
+                blackhole.consume(value);
+            }
+
+            @Override
+            public <V> Expression<V> parameter(String name, Class<V> type) {
+                return null;
+            }
+        });
+    }
+
+    @Benchmark
+    public Predicate like() {
+        return nameLike.match(criteriaBuilder, name);
+    }
+
+    @Benchmark
+    public Predicate between() {
+        return priceBetween.match(criteriaBuilder, price);
+    }
+
+    @Benchmark
+    public Predicate gte() {
+        return birthdateGte.match(criteriaBuilder, birthdate);
+    }
+
+    @Benchmark
+    public Predicate booleanEq() {
+        return activeEq.match(criteriaBuilder, active);
+    }
+}
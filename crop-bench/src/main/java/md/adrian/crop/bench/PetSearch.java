@@ -0,0 +1,39 @@
+package md.adrian.crop.bench;
+
+import md.adrian.crop.petshop.domain.*;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.petshop.search.PetCriteriaOperatorTemplate;
+import md.adrian.crop.service.CriteriaOperatorBuilder;
+import md.adrian.crop.service.CriteriaOperatorService;
+import md.adrian.crop.service.CriteriaOperatorTemplate;
+
+/**
+ * The match and join chain of the {@code crop-test} pet search, generated for the template and declared per call.
+ */
+final class PetSearch {
+
+    private PetSearch() {
+    }
+
+    static CriteriaOperatorTemplate<Pet, PetCriteriaOperator> template(CriteriaOperatorService service) {
+        return PetCriteriaOperatorTemplate.template(service).build();
+    }
+
+    static CriteriaOperatorBuilder<Pet, PetCriteriaOperator> adHoc(CriteriaOperatorService service, PetCriteriaOperator search) {
+        return service.create(Pet.class, search)
+            .match(Pet_.id, PetCriteriaOperator::getId)
+            .match(Pet_.name, PetCriteriaOperator::getNickname)
+            .match(Pet_.birthdate, PetCriteriaOperator::getBirthdate)
+            .match(Pet_.price, PetCriteriaOperator::getPrice)
+            .join(Pet_.features)
+                .match(PetFeature_.feature, PetCriteriaOperator::getFeatures)
+            .endJoin()
+            .match(Pet_.active, PetCriteriaOperator::getActive)
+            .join(Pet_.petType)
+                .match(PetType_.code, PetCriteriaOperator::getType)
+                .join(PetType_.petCategory)
+                    .match(PetCategory_.code, PetCriteriaOperator::getCategory)
+                .endJoin()
+            .endJoin();
+    }
+}
@@ -0,0 +1,121 @@
+package md.adrian.crop.bench;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.petshop.domain.PetCategory;
+import md.adrian.crop.petshop.domain.PetFeature;
+import md.adrian.crop.petshop.domain.PetType;
+import md.adrian.crop.service.CriteriaOperatorResultCacheListener;
+import md.adrian.crop.service.CriteriaOperatorService;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.resource.beans.container.spi.BeanContainer;
+import org.hibernate.resource.beans.container.spi.ContainedBean;
+import org.hibernate.resource.beans.spi.BeanInstanceProducer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An embedded H2 database with the petshop domain of {@code crop-test}, seeded with the given number of pets.
+ * Pets are spread over three types of two categories, one feature per ten pets.
+ */
+final class PetshopDatabase implements AutoCloseable {
+
+    private static final AtomicInteger DATABASE_COUNTER = new AtomicInteger();
+
+    private final EntityManagerFactory entityManagerFactory;
+    /**
+     * The service whose result caches the entity listeners invalidate, the last one created.
+     */
+    private volatile CriteriaOperatorService service;
+
+    PetshopDatabase(int pets) {
+        Configuration configuration = new Configuration();
+        configuration.getProperties().put(AvailableSettings.BEAN_CONTAINER, new ListenerBeanContainer());
+        this.entityManagerFactory = configuration
+            .addAnnotatedClass(Pet.class)
+            .addAnnotatedClass(PetType.class)
+            .addAnnotatedClass(PetCategory.class)
+            .addAnnotatedClass(PetFeature.class)
+            .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:petshop" + DATABASE_COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1")
+            .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+            .buildSessionFactory();
+        seed(pets);
+    }
+
+    EntityManager createEntityManager() {
+        return entityManagerFactory.createEntityManager();
+    }
+
+    EntityManagerFactory getEntityManagerFactory() {
+        return entityManagerFactory;
+    }
+
+    CriteriaOperatorService createService(EntityManager entityManager) {
+        service = new CriteriaOperatorService(entityManager);
+        return service;
+    }
+
+    private void seed(int pets) {
+        try (EntityManager entityManager = createEntityManager()) {
+            entityManager.getTransaction().begin();
+            entityManager.createNativeQuery("insert into pet_category(id, code) values (1, 'animal'), (2, 'plant')")
+                .executeUpdate();
+            entityManager.createNativeQuery("insert into pet_type(id, code, pet_category_id) values (1, 'dog', 1), (2, 'cat', 1), (3, 'cactus', 2)")
+                .executeUpdate();
+            entityManager.createNativeQuery("""
+                    insert into pet(id, birthdate, name, price, pet_type_id, active)
+                    select x, dateadd('DAY', mod(x, 7300), date '2000-01-01'), concat('Pet', x), mod(x, 10000) / 100.0, mod(x, 3) + 1, mod(x, 2) = 0
+                    from system_range(1, ?1)
+                    """)
+                .setParameter(1, pets)
+                .executeUpdate();
+            entityManager.createNativeQuery("""
+                    insert into pet_feature(id, feature, pet_id)
+                    select x, case when mod(x, 20) = 0 then 'fast' else 'cute' end, x
+                    from system_range(10, ?1, 10)
+                    """)
+                .setParameter(1, pets)
+                .executeUpdate();
+            entityManager.getTransaction().commit();
+        }
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+    }
+
+    /**
+     * Creates the result cache listeners of the entities with the service of the database, as Spring or CDI would,
+     * and the other beans without a container.
+     */
+    private final class ListenerBeanContainer implements BeanContainer {
+
+        @Override
+        public <B> ContainedBean<B> getBean(Class<B> beanType, LifecycleOptions lifecycleOptions, BeanInstanceProducer fallbackProducer) {
+            B bean = beanType == CriteriaOperatorResultCacheListener.class
+                ? beanType.cast(new CriteriaOperatorResultCacheListener(() -> service))
+                : fallbackProducer.produceBeanInstance(beanType);
+            return () -> bean;
+        }
+
+        @Override
+        public <B> ContainedBean<B> getBean(
+            String name,
+            Class<B> beanType,
+            LifecycleOptions lifecycleOptions,
+            BeanInstanceProducer fallbackProducer
+        ) {
+            B bean = fallbackProducer.produceBeanInstance(name, beanType);
+            return () -> bean;
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package md.adrian.crop.bench;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import md.adrian.crop.operator.BigDecimalCriteriaOperator;
+import md.adrian.crop.operator.StringCriteriaOperator;
+import md.adrian.crop.petshop.domain.*;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.service.CriteriaOperatorService;
+import md.adrian.crop.service.CriteriaOperatorTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The match and join chain up to the query, without executing it:
+ * declared per call, as with {@code CriteriaOperatorService#create}, or once, as a template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBuildBenchmark {
+
+    private PetshopDatabase database;
+    private EntityManager entityManager;
+    private CriteriaOperatorService service;
+    private CriteriaOperatorTemplate<Pet, PetCriteriaOperator> template;
+    private PetCriteriaOperator rootSearch;
+    private PetCriteriaOperator deepJoinSearch;
+
+    @Setup
+    public void setUp() {
+        database = new PetshopDatabase(0);
+        entityManager = database.createEntityManager();
+        service = database.createService(entityManager);
+        template = PetSearch.template(service);
+
+        var price = new BigDecimalCriteriaOperator();
+        price.setGte(new BigDecimal("10.00"));
+        rootSearch = new PetCriteriaOperator();
+        rootSearch.setPrice(price);
+
+        var category = new StringCriteriaOperator();
+        category.setEq("animal");
+        deepJoinSearch = new PetCriteriaOperator();
+        deepJoinSearch.setPrice(price);
+        deepJoinSearch.setCategory(category);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        database.close();
+    }
+
+    @Benchmark
+    public TypedQuery<Pet> adHocRoot() {
+        return PetSearch.adHoc(service, rootSearch).getQuery();
+    }
+
+    @Benchmark
+    public TypedQuery<Pet> adHocDeepJoin() {
+        return PetSearch.adHoc(service, deepJoinSearch).getQuery();
+    }
+
+    @Benchmark
+    public TypedQuery<Pet> templateRoot() {
+        return template.create(rootSearch).getQuery();
+    }
+
+    @Benchmark
+    public TypedQuery<Pet> templateDeepJoin() {
+        return template.create(deepJoinSearch).getQuery();
+    }
+}
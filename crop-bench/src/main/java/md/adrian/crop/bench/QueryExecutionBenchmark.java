@@ -0,0 +1,86 @@
+package md.adrian.crop.bench;
+
+import jakarta.persistence.EntityManager;
+import md.adrian.crop.CriteriaOperatorOrder;
+import md.adrian.crop.CriteriaOperatorPage;
+import md.adrian.crop.CriteriaOperatorPageResult;
+import md.adrian.crop.operator.BigDecimalCriteriaOperator;
+import md.adrian.crop.operator.StringCriteriaOperator;
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.service.CriteriaOperatorTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pet search end to end against the embedded database: a page of entities, the count, and both together.
+ * The persistence context is cleared after each invocation, as it would be at the end of a request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryExecutionBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "1000000"})
+    private int pets;
+
+    private PetshopDatabase database;
+    private EntityManager entityManager;
+    private CriteriaOperatorTemplate<Pet, PetCriteriaOperator> template;
+    private PetCriteriaOperator search;
+    private CriteriaOperatorOrder order;
+    private CriteriaOperatorPage page;
+
+    @Setup
+    public void setUp() {
+        database = new PetshopDatabase(pets);
+        entityManager = database.createEntityManager();
+        template = PetSearch.template(database.createService(entityManager));
+
+        var price = new BigDecimalCriteriaOperator();
+        price.setBtw(List.of(new BigDecimal("10.00"), new BigDecimal("20.00")));
+        var type = new StringCriteriaOperator();
+        type.setEq("cat");
+        search = new PetCriteriaOperator();
+        search.setPrice(price);
+        search.setType(type);
+
+        order = new CriteriaOperatorOrder();
+        order.setOrder(List.of("price"));
+        page = new CriteriaOperatorPage();
+        page.setSize(PAGE_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        database.close();
+    }
+
+    @Benchmark
+    public List<Pet> list() {
+        List<Pet> pets = template.create(search, order, page).getResultList();
+        entityManager.clear();
+        return pets;
+    }
+
+    @Benchmark
+    public Long count() {
+        return template.create(search).getCount();
+    }
+
+    @Benchmark
+    public CriteriaOperatorPageResult<Pet> page() {
+        CriteriaOperatorPageResult<Pet> result = template.create(search, order, page).getPage();
+        entityManager.clear();
+        return result;
+    }
+}
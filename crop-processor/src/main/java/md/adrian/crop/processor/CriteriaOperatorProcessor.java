@@ -0,0 +1,295 @@
+package md.adrian.crop.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates, for each type annotated with {@code CriteriaOperatorSearch}, a {@code <Type>Template} class
+ * whose {@code template} method declares the match and join chain of its criteria operator fields.
+ * The chain refers to the JPA static metamodel, {@code <Entity>_}, generated along with it, for example by
+ * {@code hibernate-jpamodelgen}, and to the getters of the fields, so nothing is resolved reflectively at runtime.
+ * The fields of the superclasses of the search type are matched as well, before its own.
+ * The chain is declared through the generic template builder, no builder specialised for the search type is generated,
+ * as the chain is only run once, when the template is built, and the template then caches the criteria queries.
+ */
+@SupportedAnnotationTypes(CriteriaOperatorProcessor.SEARCH_ANNOTATION)
+public class CriteriaOperatorProcessor extends AbstractProcessor {
+
+    static final String SEARCH_ANNOTATION = "md.adrian.crop.annotation.CriteriaOperatorSearch";
+    static final String PATH_ANNOTATION = "md.adrian.crop.annotation.CriteriaOperatorPath";
+    static final String CRITERIA_OPERATOR = "md.adrian.crop.operator.CriteriaOperator";
+    static final String TEMPLATE_SUFFIX = "Template";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (TypeElement searchType : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                try {
+                    generate(searchType);
+                } catch (PathException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "can't generate: " + e.getMessage(), searchType);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement searchType) throws IOException {
+        TypeElement rootType = (TypeElement) ((DeclaredType) getAnnotationValue(searchType, SEARCH_ANNOTATION)).asElement();
+        JoinNode root = new JoinNode(rootType);
+        TypeMirror criteriaOperator = processingEnv.getTypeUtils()
+            .erasure(processingEnv.getElementUtils().getTypeElement(CRITERIA_OPERATOR).asType());
+        for (VariableElement field : fieldsOf(searchType)) {
+            if (field.getModifiers().contains(Modifier.STATIC)
+                || !processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(field.asType()), criteriaOperator)) {
+                continue;
+            }
+            Object path = getAnnotationValue(field, PATH_ANNOTATION);
+            addPath(root, path == null ? field.getSimpleName().toString() : (String) path, field);
+        }
+        write(searchType, root);
+    }
+
+    /**
+     * Provides the fields of the type and of its superclasses, those of the superclasses first.
+     */
+    private static List<VariableElement> fieldsOf(TypeElement type) {
+        List<VariableElement> fields = new ArrayList<>();
+        for (TypeElement declaringType = type; declaringType != null; declaringType = superclass(declaringType)) {
+            fields.addAll(0, ElementFilter.fieldsIn(declaringType.getEnclosedElements()));
+        }
+        return fields;
+    }
+
+    private void addPath(JoinNode root, String path, VariableElement field) {
+        String[] attributes = path.split("\\.");
+        JoinNode node = root;
+        for (int i = 0; i < attributes.length - 1; i++) {
+            VariableElement attribute = findAttribute(node.entity, attributes[i], field);
+            JoinNode parent = node;
+            node = (JoinNode) node.children.computeIfAbsent(attributes[i], name -> toJoin(parent, attribute, field));
+        }
+        String attributeName = attributes[attributes.length - 1];
+        VariableElement attribute = findAttribute(node.entity, attributeName, field);
+        node.children.put(attributeName + "#" + field.getSimpleName(), new MatchNode(attributeName, field, isInherited(node.entity, attribute)));
+    }
+
+    private JoinNode toJoin(JoinNode parent, VariableElement attribute, VariableElement field) {
+        TypeMirror type = attribute.asType();
+        if (type.getKind() == TypeKind.DECLARED
+            && ((DeclaredType) type).asElement().toString().equals(List.class.getName())) {
+            type = ((DeclaredType) type).getTypeArguments().get(0);
+        } else if (isCollection(type)) {
+            throw new PathException("only List collections can be joined: " + attribute.getSimpleName(), field);
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            throw new PathException("not an association: " + attribute.getSimpleName(), field);
+        }
+        JoinNode join = new JoinNode((TypeElement) ((DeclaredType) type).asElement());
+        join.attribute = attribute.getSimpleName().toString();
+        join.parentEntity = parent.entity;
+        join.inherited = isInherited(parent.entity, attribute);
+        return join;
+    }
+
+    private boolean isCollection(TypeMirror type) {
+        TypeElement collection = processingEnv.getElementUtils().getTypeElement("java.util.Collection");
+        return processingEnv.getTypeUtils().isAssignable(
+            processingEnv.getTypeUtils().erasure(type),
+            processingEnv.getTypeUtils().erasure(collection.asType())
+        );
+    }
+
+    /**
+     * Finds the persistent field of the entity or of its mapped superclasses.
+     */
+    private VariableElement findAttribute(TypeElement entity, String name, VariableElement field) {
+        for (TypeElement type = entity; type != null; type = superclass(type)) {
+            for (VariableElement attribute : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (attribute.getSimpleName().contentEquals(name)) {
+                    return attribute;
+                }
+            }
+        }
+        throw new PathException("unknown attribute " + name + " of " + entity.getSimpleName(), field);
+    }
+
+    /**
+     * @return true if the attribute is declared by a mapped superclass of the entity, its metamodel attribute is then
+     * declared by the metamodel of the superclass, with the superclass as the owning type
+     */
+    private static boolean isInherited(TypeElement entity, VariableElement attribute) {
+        return !attribute.getEnclosingElement().equals(entity);
+    }
+
+    private static TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    private static Object getAnnotationValue(Element element, String annotationType) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationType)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : annotation.getElementValues().entrySet()) {
+                    if (value.getKey().getSimpleName().contentEquals("value")) {
+                        return value.getValue().getValue();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void write(TypeElement searchType, JoinNode root) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(searchType).getQualifiedName().toString();
+        String searchName = searchType.getQualifiedName().toString();
+        String className = searchType.getSimpleName() + TEMPLATE_SUFFIX;
+        String qualifiedClassName = packageName.isEmpty() ? className : packageName + "." + className;
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedClassName, searchType).openWriter()) {
+            StringBuilder source = new StringBuilder();
+            if (!packageName.isEmpty()) {
+                source.append("package ").append(packageName).append(";\n\n");
+            }
+            source.append("/**\n")
+                .append(" * The match and join chain of {@link ").append(searchName).append("}.\n")
+                .append(" */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(CriteriaOperatorProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(className).append(" {\n\n")
+                .append("    private ").append(className).append("() {\n")
+                .append("    }\n\n")
+                .append("    /**\n")
+                .append("     * @param service the service\n")
+                .append("     * @return the template builder with all the matches declared\n")
+                .append("     */\n")
+                .append("    public static md.adrian.crop.service.CriteriaOperatorTemplateBuilder<")
+                .append(root.entity.getQualifiedName()).append(", ").append(searchName).append("> template(\n")
+                .append("        md.adrian.crop.service.CriteriaOperatorService service\n")
+                .append("    ) {\n")
+                .append("        return service.template(").append(root.entity.getQualifiedName()).append(".class, ")
+                .append(searchName).append(".class)");
+            writeChildren(source, root, searchType, 3);
+            source.append(";\n")
+                .append("    }\n");
+            if (hasInherited(root)) {
+                writeInherited(source);
+            }
+            source.append("}\n");
+            writer.write(source.toString());
+        }
+    }
+
+    private void writeChildren(StringBuilder source, JoinNode join, TypeElement searchType, int depth) {
+        String indent = "    ".repeat(depth);
+        for (Object child : join.children.values()) {
+            if (child instanceof MatchNode match) {
+                source.append('\n').append(indent)
+                    .append(".match(").append(attribute(join.entity, match.attribute, match.inherited))
+                    .append(", ").append(getter(searchType, match.field)).append(')');
+            } else {
+                JoinNode nested = (JoinNode) child;
+                source.append('\n').append(indent)
+                    .append(".join(").append(attribute(nested.parentEntity, nested.attribute, nested.inherited)).append(')');
+                writeChildren(source, nested, searchType, depth + 1);
+                source.append('\n').append(indent).append(".endJoin()");
+            }
+        }
+    }
+
+    private static String attribute(TypeElement entity, String attribute, boolean inherited) {
+        String metamodelAttribute = entity.getQualifiedName() + "_." + attribute;
+        return inherited ? "inherited(" + metamodelAttribute + ")" : metamodelAttribute;
+    }
+
+    private static boolean hasInherited(JoinNode join) {
+        for (Object child : join.children.values()) {
+            if (child instanceof MatchNode match ? match.inherited : hasInherited((JoinNode) child)) {
+                return true;
+            }
+        }
+        return join.inherited;
+    }
+
+    /**
+     * Writes the methods that narrow the owning type of an inherited metamodel attribute to the entity,
+     * as the builders take the attributes of the entity itself.
+     */
+    private static void writeInherited(StringBuilder source) {
+        for (String attributeType : List.of("SingularAttribute", "ListAttribute")) {
+            String type = "jakarta.persistence.metamodel." + attributeType;
+            source.append('\n')
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    private static <X, Y> ").append(type).append("<X, Y> inherited(").append(type).append("<? super X, Y> attribute) {\n")
+                .append("        return (").append(type).append("<X, Y>) attribute;\n")
+                .append("    }\n");
+        }
+    }
+
+    /**
+     * Refers to the getter of the field, by the bean convention, or to the field itself if it is public.
+     */
+    private static String getter(TypeElement searchType, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        if (field.getModifiers().contains(Modifier.PUBLIC)) {
+            return "search -> search." + name;
+        }
+        return searchType.getQualifiedName() + "::get" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * An entity reached from the root by joins, with its matches and nested joins in the order of the fields.
+     */
+    private static final class JoinNode {
+
+        private final TypeElement entity;
+        private final Map<String, Object> children = new LinkedHashMap<>();
+        private TypeElement parentEntity;
+        private String attribute;
+        private boolean inherited;
+
+        private JoinNode(TypeElement entity) {
+            this.entity = entity;
+        }
+    }
+
+    private record MatchNode(String attribute, VariableElement field, boolean inherited) {
+    }
+
+    private static final class PathException extends RuntimeException {
+
+        private final transient Element element;
+
+        private PathException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
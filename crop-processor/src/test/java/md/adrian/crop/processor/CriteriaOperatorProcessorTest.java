@@ -0,0 +1,242 @@
+package md.adrian.crop.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.Compiler;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+
+class CriteriaOperatorProcessorTest {
+
+    private static final String TEMPLATE = "test.PetSearchTemplate";
+
+    @Test
+    void shouldShareJoinOfCommonPathPrefix() {
+        var compilation = compile(JavaFileObjects.forSourceLines("test.PetSearch",
+            "package test;",
+            "",
+            "import md.adrian.crop.annotation.CriteriaOperatorPath;",
+            "import md.adrian.crop.annotation.CriteriaOperatorSearch;",
+            "import md.adrian.crop.operator.StringCriteriaOperator;",
+            "",
+            "@CriteriaOperatorSearch(Pet.class)",
+            "public class PetSearch {",
+            "    @CriteriaOperatorPath(\"petType.code\")",
+            "    public StringCriteriaOperator type;",
+            "    @CriteriaOperatorPath(\"petType.petCategory.code\")",
+            "    public StringCriteriaOperator category;",
+            "}"
+        ));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(TEMPLATE).contentsAsUtf8String().contains(String.join("\n",
+            ".join(test.Pet_.petType)",
+            "                .match(test.PetType_.code, search -> search.type)",
+            "                .join(test.PetType_.petCategory)",
+            "                    .match(test.PetCategory_.code, search -> search.category)",
+            "                .endJoin()",
+            "            .endJoin();"
+        ));
+    }
+
+    @Test
+    void shouldReferToPublicFieldsAndGettersOfOthers() {
+        var compilation = compile(JavaFileObjects.forSourceLines("test.PetSearch",
+            "package test;",
+            "",
+            "import md.adrian.crop.annotation.CriteriaOperatorSearch;",
+            "import md.adrian.crop.operator.StringCriteriaOperator;",
+            "",
+            "@CriteriaOperatorSearch(Pet.class)",
+            "public class PetSearch {",
+            "    public StringCriteriaOperator name;",
+            "    private StringCriteriaOperator nickname;",
+            "",
+            "    public StringCriteriaOperator getNickname() {",
+            "        return nickname;",
+            "    }",
+            "}"
+        ));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(TEMPLATE).contentsAsUtf8String()
+            .contains(".match(test.Pet_.name, search -> search.name)");
+        assertThat(compilation).generatedSourceFile(TEMPLATE).contentsAsUtf8String()
+            .contains(".match(test.Pet_.nickname, test.PetSearch::getNickname)");
+    }
+
+    @Test
+    void shouldMatchInheritedFieldsWithInheritedAttributes() {
+        var compilation = compile(
+            JavaFileObjects.forSourceLines("test.BaseSearch",
+                "package test;",
+                "",
+                "import md.adrian.crop.operator.LongCriteriaOperator;",
+                "",
+                "public class BaseSearch {",
+                "    private LongCriteriaOperator id;",
+                "",
+                "    public LongCriteriaOperator getId() {",
+                "        return id;",
+                "    }",
+                "}"
+            ),
+            JavaFileObjects.forSourceLines("test.PetSearch",
+                "package test;",
+                "",
+                "import md.adrian.crop.annotation.CriteriaOperatorSearch;",
+                "import md.adrian.crop.operator.StringCriteriaOperator;",
+                "",
+                "@CriteriaOperatorSearch(Pet.class)",
+                "public class PetSearch extends BaseSearch {",
+                "    public StringCriteriaOperator name;",
+                "}"
+            )
+        );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(TEMPLATE).contentsAsUtf8String().contains(String.join("\n",
+            ".match(inherited(test.Pet_.id), test.PetSearch::getId)",
+            "            .match(test.Pet_.name, search -> search.name);"
+        ));
+    }
+
+    @Test
+    void shouldRejectUnknownAttribute() {
+        var compilation = compile(JavaFileObjects.forSourceLines("test.PetSearch",
+            "package test;",
+            "",
+            "import md.adrian.crop.annotation.CriteriaOperatorPath;",
+            "import md.adrian.crop.annotation.CriteriaOperatorSearch;",
+            "import md.adrian.crop.operator.StringCriteriaOperator;",
+            "",
+            "@CriteriaOperatorSearch(Pet.class)",
+            "public class PetSearch {",
+            "    @CriteriaOperatorPath(\"petType.color\")",
+            "    public StringCriteriaOperator color;",
+            "}"
+        ));
+
+        assertThat(compilation).hadErrorContaining("unknown attribute color of PetType");
+    }
+
+    @Test
+    void shouldRejectJoinOfNonListCollection() {
+        var compilation = compile(JavaFileObjects.forSourceLines("test.PetSearch",
+            "package test;",
+            "",
+            "import md.adrian.crop.annotation.CriteriaOperatorPath;",
+            "import md.adrian.crop.annotation.CriteriaOperatorSearch;",
+            "import md.adrian.crop.operator.StringCriteriaOperator;",
+            "",
+            "@CriteriaOperatorSearch(Pet.class)",
+            "public class PetSearch {",
+            "    @CriteriaOperatorPath(\"tags.feature\")",
+            "    public StringCriteriaOperator tag;",
+            "}"
+        ));
+
+        assertThat(compilation).hadErrorContaining("only List collections can be joined: tags");
+    }
+
+    /**
+     * Compiles the search types along with the entities and their static metamodel.
+     */
+    private static Compilation compile(JavaFileObject... searchTypes) {
+        List<JavaFileObject> sources = new ArrayList<>(List.of(
+            JavaFileObjects.forSourceLines("test.BaseEntity",
+                "package test;",
+                "",
+                "public class BaseEntity {",
+                "    private Long id;",
+                "}"
+            ),
+            JavaFileObjects.forSourceLines("test.Pet",
+                "package test;",
+                "",
+                "import java.util.List;",
+                "import java.util.Set;",
+                "",
+                "public class Pet extends BaseEntity {",
+                "    private String name;",
+                "    private String nickname;",
+                "    private PetType petType;",
+                "    private List<PetFeature> features;",
+                "    private Set<PetFeature> tags;",
+                "}"
+            ),
+            JavaFileObjects.forSourceLines("test.PetType",
+                "package test;",
+                "",
+                "public class PetType {",
+                "    private String code;",
+                "    private PetCategory petCategory;",
+                "}"
+            ),
+            JavaFileObjects.forSourceLines("test.PetCategory",
+                "package test;",
+                "",
+                "public class PetCategory {",
+                "    private String code;",
+                "}"
+            ),
+            JavaFileObjects.forSourceLines("test.PetFeature",
+                "package test;",
+                "",
+                "public class PetFeature {",
+                "    private String feature;",
+                "}"
+            ),
+            JavaFileObjects.forSourceLines("test.BaseEntity_",
+                "package test;",
+                "",
+                "import jakarta.persistence.metamodel.SingularAttribute;",
+                "",
+                "public class BaseEntity_ {",
+                "    public static volatile SingularAttribute<BaseEntity, Long> id;",
+                "}"
+            ),
+            JavaFileObjects.forSourceLines("test.Pet_",
+                "package test;",
+                "",
+                "import jakarta.persistence.metamodel.ListAttribute;",
+                "import jakarta.persistence.metamodel.SetAttribute;",
+                "import jakarta.persistence.metamodel.SingularAttribute;",
+                "",
+                "public class Pet_ extends BaseEntity_ {",
+                "    public static volatile SingularAttribute<Pet, String> name;",
+                "    public static volatile SingularAttribute<Pet, String> nickname;",
+                "    public static volatile SingularAttribute<Pet, PetType> petType;",
+                "    public static volatile ListAttribute<Pet, PetFeature> features;",
+                "    public static volatile SetAttribute<Pet, PetFeature> tags;",
+                "}"
+            ),
+            JavaFileObjects.forSourceLines("test.PetType_",
+                "package test;",
+                "",
+                "import jakarta.persistence.metamodel.SingularAttribute;",
+                "",
+                "public class PetType_ {",
+                "    public static volatile SingularAttribute<PetType, String> code;",
+                "    public static volatile SingularAttribute<PetType, PetCategory> petCategory;",
+                "}"
+            ),
+            JavaFileObjects.forSourceLines("test.PetCategory_",
+                "package test;",
+                "",
+                "import jakarta.persistence.metamodel.SingularAttribute;",
+                "",
+                "public class PetCategory_ {",
+                "    public static volatile SingularAttribute<PetCategory, String> code;",
+                "}"
+            )
+        ));
+        sources.addAll(List.of(searchTypes));
+        return Compiler.javac().withProcessors(new CriteriaOperatorProcessor()).compile(sources);
+    }
+}
@@ -1,15 +1,104 @@
 package md.adrian.crop.petshop;
 
 import jakarta.persistence.EntityManager;
+import md.adrian.crop.operator.InListStrategy;
+import md.adrian.crop.petshop.domain.*;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.petshop.search.PetCriteriaOperatorTemplate;
+import md.adrian.crop.petshop.search.PetRecord;
+import md.adrian.crop.service.CriteriaOperatorBinder;
+import md.adrian.crop.service.CriteriaOperatorCountEstimator;
+import md.adrian.crop.service.CriteriaOperatorProjection;
+import md.adrian.crop.service.CriteriaOperatorResultCache;
+import md.adrian.crop.service.CriteriaOperatorResultCacheListener;
 import md.adrian.crop.service.CriteriaOperatorService;
+import md.adrian.crop.service.CriteriaOperatorSlowQueryLogger;
+import md.adrian.crop.service.CriteriaOperatorTemplate;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 @Configuration
 public class CrOpConfig {
 
+    private static final Duration SLOW_QUERY_THRESHOLD = Duration.ofMillis(200);
+    private static final int IN_LIST_ARRAY_THRESHOLD = 64;
+    private static final int RESULT_CACHE_SIZE = 256;
+    private static final Duration RESULT_CACHE_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    @Bean
+    QueryEventRecorder queryEventRecorder() {
+        return new QueryEventRecorder();
+    }
+
+    @Bean
+    CriteriaOperatorService criteriaOperatorService(EntityManager entityManager, QueryEventRecorder queryEventRecorder) {
+        return CriteriaOperatorService.builder(entityManager)
+            .listener(queryEventRecorder.andThen(new CriteriaOperatorSlowQueryLogger(SLOW_QUERY_THRESHOLD)))
+            .textSearchDialect(new H2TextSearchDialect())
+            .inListStrategy(InListStrategy.hibernateArray(IN_LIST_ARRAY_THRESHOLD))
+            .build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService searchExecutor() {
+        return Executors.newCachedThreadPool();
+    }
+
+    @Bean
+    CriteriaOperatorCountEstimator h2CountEstimator() {
+        return CriteriaOperatorCountEstimator.h2();
+    }
+
+    @Bean
+    @Primary
+    CriteriaOperatorTemplate<Pet, PetCriteriaOperator> petSearchTemplate(CriteriaOperatorService cropService) {
+        return PetCriteriaOperatorTemplate.template(cropService).build();
+    }
+
+    @Bean
+    CriteriaOperatorResultCache resultCache() {
+        return new CriteriaOperatorResultCache(RESULT_CACHE_SIZE, RESULT_CACHE_TIME_TO_LIVE);
+    }
+
+    /**
+     * Injected into the {@link CriteriaOperatorResultCacheListener}s that Hibernate creates through Spring.
+     */
+    @Bean
+    Supplier<CriteriaOperatorService> criteriaOperatorServiceSupplier(ObjectProvider<CriteriaOperatorService> cropService) {
+        return cropService::getObject;
+    }
+
+    @Bean
+    CriteriaOperatorTemplate<Pet, PetCriteriaOperator> petCatalogTemplate(
+        CriteriaOperatorService cropService,
+        CriteriaOperatorResultCache resultCache
+    ) {
+        return PetCriteriaOperatorTemplate.template(cropService)
+            .resultCache(resultCache)
+            .sortable("name", "birthdate", "price", "petType.code")
+            .build();
+    }
+
+    @Bean
+    CriteriaOperatorBinder<PetCriteriaOperator> petSearchBinder() {
+        return CriteriaOperatorBinder.of(PetCriteriaOperator.class);
+    }
+
     @Bean
-    CriteriaOperatorService criteriaOperatorService(EntityManager entityManager) {
-        return new CriteriaOperatorService(entityManager);
+    CriteriaOperatorProjection<Pet, PetRecord> petRecordProjection() {
+        return CriteriaOperatorProjection.of(Pet.class, PetRecord.class)
+            .select(Pet_.id)
+            .select(Pet_.birthdate)
+            .select(Pet_.petType, PetType_.code)
+            .select(Pet_.name)
+            .select(Pet_.price)
+            .select(Pet_.active);
     }
 }
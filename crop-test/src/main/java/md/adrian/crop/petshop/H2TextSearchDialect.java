@@ -0,0 +1,43 @@
+package md.adrian.crop.petshop;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import md.adrian.crop.operator.TextSearchDialect;
+
+/**
+ * Searches the native full-text index of H2, created by {@code FT_CREATE_INDEX} for the column of the document.
+ * An H2 index covers a table, so the rows are matched only if the index of their table covers exactly
+ * the document column, by their single-column key. The table and the column are bound as parameters.
+ */
+public class H2TextSearchDialect implements TextSearchDialect {
+
+    private static final String SQL = "(? in (select cast(ft.keys[1] as bigint) from ft_search_data(?, 0, 0) ft"
+        + " join ft.indexes i on i.\"SCHEMA\" = ft.\"SCHEMA\" and i.\"TABLE\" = ft.\"TABLE\""
+        + " where ft.\"TABLE\" = ? and i.columns = ?))";
+
+    @Override
+    public Predicate match(CriteriaBuilder criteriaBuilder, Expression<String> document, Expression<String> query) {
+        Path<?> entity = ((Path<?>) document).getParentPath();
+        EntityType<?> entityType = (EntityType<?>) entity.getModel();
+        Path<?> id = entity.get(entityType.getId(entityType.getIdType().getJavaType()).getName());
+        String column = toSqlName(((Attribute<?, ?>) ((Path<?>) document).getModel()).getName());
+        return criteriaBuilder.isTrue(criteriaBuilder.function("sql", Boolean.class,
+            criteriaBuilder.literal(SQL),
+            id,
+            query,
+            criteriaBuilder.literal(toSqlName(entityType.getName())),
+            criteriaBuilder.literal(column)
+        ));
+    }
+
+    /**
+     * The name given by the Spring physical naming strategy, upper case for the H2 catalog.
+     */
+    private static String toSqlName(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+}
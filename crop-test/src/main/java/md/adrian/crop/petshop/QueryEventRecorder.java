@@ -0,0 +1,28 @@
+package md.adrian.crop.petshop;
+
+import md.adrian.crop.service.CriteriaOperatorListener;
+import md.adrian.crop.service.CriteriaOperatorQueryEvent;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Keeps the latest query events, a stand-in for a bridge to a metrics system.
+ */
+public class QueryEventRecorder implements CriteriaOperatorListener {
+
+    private static final int MAX_EVENTS = 100;
+
+    private final ConcurrentLinkedDeque<CriteriaOperatorQueryEvent> events = new ConcurrentLinkedDeque<>();
+
+    @Override
+    public void onQuery(CriteriaOperatorQueryEvent event) {
+        events.addLast(event);
+        if (events.size() > MAX_EVENTS) {
+            events.pollFirst();
+        }
+    }
+
+    public CriteriaOperatorQueryEvent getLastEvent() {
+        return events.peekLast();
+    }
+}
@@ -1,5 +1,6 @@
 package md.adrian.crop.petshop.domain;
 
+import md.adrian.crop.service.CriteriaOperatorResultCacheListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -10,6 +11,7 @@ import java.util.List;
 @Data
 @Table(name = "pet")
 @Entity
+@EntityListeners(CriteriaOperatorResultCacheListener.class)
 public class Pet {
 
     @Id
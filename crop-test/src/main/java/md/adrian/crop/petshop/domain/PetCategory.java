@@ -1,7 +1,9 @@
 package md.adrian.crop.petshop.domain;
 
+import md.adrian.crop.service.CriteriaOperatorResultCacheListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Data;
@@ -9,6 +11,7 @@ import lombok.Data;
 @Data
 @Table(name = "pet_category")
 @Entity
+@EntityListeners(CriteriaOperatorResultCacheListener.class)
 public class PetCategory {
 
     @Id
@@ -1,11 +1,13 @@
 package md.adrian.crop.petshop.domain;
 
+import md.adrian.crop.service.CriteriaOperatorResultCacheListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Data
 @Table(name = "pet_type")
 @Entity
+@EntityListeners(CriteriaOperatorResultCacheListener.class)
 public class PetType {
 
     @Id
@@ -0,0 +1,35 @@
+package md.adrian.crop.petshop.search;
+
+import md.adrian.crop.CriteriaOperatorOrder;
+import md.adrian.crop.CriteriaOperatorPage;
+import md.adrian.crop.CriteriaOperatorPageResult;
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.service.CriteriaOperatorProjection;
+import md.adrian.crop.service.CriteriaOperatorTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The catalog browsing, whose pages are served from the result cache.
+ */
+@RestController
+public class PetCatalogController {
+
+    private final CriteriaOperatorTemplate<Pet, PetCriteriaOperator> petCatalogTemplate;
+    private final CriteriaOperatorProjection<Pet, PetRecord> petRecordProjection;
+
+    public PetCatalogController(
+        @Qualifier("petCatalogTemplate") CriteriaOperatorTemplate<Pet, PetCriteriaOperator> petCatalogTemplate,
+        CriteriaOperatorProjection<Pet, PetRecord> petRecordProjection
+    ) {
+        this.petCatalogTemplate = petCatalogTemplate;
+        this.petRecordProjection = petRecordProjection;
+    }
+
+    @GetMapping("/pets/page/catalog")
+    CriteriaOperatorPageResult<PetRecord> findPage(PetCriteriaOperator searchCriteria, CriteriaOperatorOrder order, CriteriaOperatorPage page) {
+        return petCatalogTemplate.create(searchCriteria, order, page)
+            .getPage(petRecordProjection);
+    }
+}
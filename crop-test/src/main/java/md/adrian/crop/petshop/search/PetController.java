@@ -1,63 +1,94 @@
 package md.adrian.crop.petshop.search;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import md.adrian.crop.CriteriaOperatorOrder;
 import md.adrian.crop.CriteriaOperatorPage;
-import md.adrian.crop.petshop.domain.*;
-import md.adrian.crop.service.CriteriaOperatorService;
+import md.adrian.crop.CriteriaOperatorPageResult;
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.service.CriteriaOperatorBinder;
+import md.adrian.crop.service.CriteriaOperatorCountEstimator;
+import md.adrian.crop.service.CriteriaOperatorProjection;
+import md.adrian.crop.service.CriteriaOperatorTemplate;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @AllArgsConstructor
 @RestController
 public class PetController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final PetMapper petMapper;
-    private final CriteriaOperatorService cropService;
+    private final CriteriaOperatorTemplate<Pet, PetCriteriaOperator> petSearchTemplate;
+    private final CriteriaOperatorProjection<Pet, PetRecord> petRecordProjection;
+    private final CriteriaOperatorCountEstimator h2CountEstimator;
+    private final ExecutorService searchExecutor;
+    private final CriteriaOperatorBinder<PetCriteriaOperator> petSearchBinder;
 
     @GetMapping("/pets")
-    List<PetRecord> findAll(PetCriteriaOperator searchCriteria, CriteriaOperatorOrder order, CriteriaOperatorPage page) {
-        return cropService.create(Pet.class, searchCriteria, order, page)
-            .match(Pet_.id, PetCriteriaOperator::getId)
-            .match(Pet_.name, PetCriteriaOperator::getNickname)
-            .match(Pet_.birthdate, PetCriteriaOperator::getBirthdate)
-            .match(Pet_.price, PetCriteriaOperator::getPrice)
-            .join(Pet_.features)
-                .match(PetFeature_.feature, PetCriteriaOperator::getFeatures)
-            .endJoin()
-            .match(Pet_.active, PetCriteriaOperator::getActive)
-            .join(Pet_.petType)
-                .match(PetType_.code, PetCriteriaOperator::getType)
-                .join(PetType_.petCategory)
-                    .match(PetCategory_.code, PetCriteriaOperator::getCategory)
-                .endJoin()
-            .endJoin()
-            .getResultList()
-            .stream()
-            .map(petMapper::map)
-            .toList();
+    ResponseEntity<List<PetRecord>> findAll(PetCriteriaOperator searchCriteria, CriteriaOperatorOrder order, CriteriaOperatorPage page) {
+        var search = petSearchTemplate.create(searchCriteria, order, page);
+        var pets = search.getResultList();
+        var response = ResponseEntity.ok();
+        if (page.getSize() != null && !pets.isEmpty()) {
+            response.header(NEXT_CURSOR_HEADER, search.getCursor(pets.get(pets.size() - 1)));
+        }
+        return response.body(pets.stream().map(petMapper::map).toList());
+    }
+
+    @GetMapping("/pets/page")
+    CriteriaOperatorPageResult<PetRecord> findPage(PetCriteriaOperator searchCriteria, CriteriaOperatorOrder order, CriteriaOperatorPage page) {
+        return petSearchTemplate.create(searchCriteria, order, page)
+            .getPage(petRecordProjection);
+    }
+
+    @GetMapping("/pets/page/async")
+    CompletableFuture<CriteriaOperatorPageResult<PetRecord>> findPageAsync(
+        PetCriteriaOperator searchCriteria,
+        CriteriaOperatorOrder order,
+        CriteriaOperatorPage page
+    ) {
+        return petSearchTemplate.create(searchCriteria, order, page)
+            .getPageAsync(petRecordProjection, searchExecutor);
+    }
+
+    @GetMapping(value = "/pets/export", produces = "text/csv")
+    void export(PetCriteriaOperator searchCriteria, CriteriaOperatorOrder order, Writer writer) throws IOException {
+        writer.write("id,name,birthdate,price\n");
+        petSearchTemplate.create(searchCriteria, order, null)
+            .forEach(EXPORT_FETCH_SIZE, pet -> {
+                try {
+                    writer.write(pet.getId() + "," + pet.getName() + "," + pet.getBirthdate() + "," + pet.getPrice() + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
     }
 
     @GetMapping("/pets/count")
-    Long count(PetCriteriaOperator searchCriteria) {
-        return cropService.create(Pet.class, searchCriteria)
-                .match(Pet_.id, PetCriteriaOperator::getId)
-                .match(Pet_.name, PetCriteriaOperator::getNickname)
-                .match(Pet_.birthdate, PetCriteriaOperator::getBirthdate)
-                .match(Pet_.price, PetCriteriaOperator::getPrice)
-                .join(Pet_.features)
-                    .match(PetFeature_.feature, PetCriteriaOperator::getFeatures)
-                .endJoin()
-                .match(Pet_.active, PetCriteriaOperator::getActive)
-                .join(Pet_.petType)
-                    .match(PetType_.code, PetCriteriaOperator::getType)
-                    .join(PetType_.petCategory)
-                        .match(PetCategory_.code, PetCriteriaOperator::getCategory)
-                    .endJoin()
-                .endJoin()
-                .getCount();
+    Long count(HttpServletRequest request) {
+        return petSearchTemplate.create(petSearchBinder.bind(request.getParameterMap())).getCount();
+    }
+
+    @GetMapping("/pets/count/capped")
+    long countCapped(PetCriteriaOperator searchCriteria, @RequestParam("limit") int limit) {
+        return petSearchTemplate.create(searchCriteria).getCount(limit);
+    }
+
+    @GetMapping("/pets/count/estimate")
+    long countEstimate(PetCriteriaOperator searchCriteria) {
+        return petSearchTemplate.create(searchCriteria).getCount(h2CountEstimator);
     }
 
 }
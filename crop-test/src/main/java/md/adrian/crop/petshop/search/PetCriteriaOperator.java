@@ -2,18 +2,28 @@ package md.adrian.crop.petshop.search;
 
 import lombok.Getter;
 import lombok.Setter;
+import md.adrian.crop.annotation.CriteriaOperatorPath;
+import md.adrian.crop.annotation.CriteriaOperatorSearch;
 import md.adrian.crop.operator.*;
+import md.adrian.crop.petshop.domain.Pet;
 
 @Getter
 @Setter
+@CriteriaOperatorSearch(Pet.class)
 public class PetCriteriaOperator {
 
     private LongCriteriaOperator id;
+    @CriteriaOperatorPath("name")
     private StringCriteriaOperator nickname;
+    @CriteriaOperatorPath("name")
+    private TextSearchCriteriaOperator text;
+    @CriteriaOperatorPath("petType.code")
     private StringCriteriaOperator type;
+    @CriteriaOperatorPath("petType.petCategory.code")
     private StringCriteriaOperator category;
     private LocalDateCriteriaOperator birthdate;
     private BigDecimalCriteriaOperator price;
     private BooleanCriteriaOperator active;
+    @CriteriaOperatorPath("features.feature")
     private StringCriteriaOperator features;
 }
@@ -0,0 +1,19 @@
+package md.adrian.crop.petshop.search;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Reports the searches the library rejects, e.g. by an unknown or not sortable order, as bad requests.
+ */
+@RestControllerAdvice
+public class SearchExceptionHandler {
+
+    @ExceptionHandler(CriteriaOperatorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    void badRequest() {
+    }
+}
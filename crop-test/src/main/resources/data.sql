@@ -17,4 +17,8 @@ INSERT INTO pet(id, birthdate, name, price, pet_type_id, active) VALUES (9, '201
 INSERT INTO pet(id, birthdate, name, price, pet_type_id, active) VALUES (10, '2010-01-11', 'Bailey10', 1.1, 3, false);
 
 INSERT INTO pet_feature(id, feature, pet_id) VALUES (1, 'fast', 1);
-INSERT INTO pet_feature(id, feature, pet_id) VALUES (2, 'cute', 2);
\ No newline at end of file
+INSERT INTO pet_feature(id, feature, pet_id) VALUES (2, 'cute', 2);
+INSERT INTO pet_feature(id, feature, pet_id) VALUES (3, 'cute', 1);
+CREATE ALIAS IF NOT EXISTS FT_INIT FOR 'org.h2.fulltext.FullText.init';
+CALL FT_INIT();
+CALL FT_CREATE_INDEX('PUBLIC', 'PET', 'NAME');
@@ -1,5 +1,6 @@
 package md.adrian.crop.petshop;
 
+import md.adrian.crop.CriteriaOperatorPageResult;
 import md.adrian.crop.petshop.search.PetRecord;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
@@ -15,7 +17,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.springframework.http.HttpMethod.GET;
-import static org.springframework.web.util.UriComponentsBuilder.fromHttpUrl;
+import static org.springframework.web.util.UriComponentsBuilder.fromUriString;
 
 @Slf4j
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
@@ -31,20 +33,63 @@ public abstract class BaseSearchTest {
     private final ParameterizedTypeReference<List<PetRecord>> type = new ParameterizedTypeReference<>() {
     };
 
+    private final ParameterizedTypeReference<CriteriaOperatorPageResult<PetRecord>> pageType = new ParameterizedTypeReference<>() {
+    };
+
     protected List<PetRecord> makeRequest(Map<String, Object> queryParams) {
-        var uriBuilder = fromHttpUrl("http://localhost")
+        return makeResponseRequest(queryParams).getBody();
+    }
+
+    protected ResponseEntity<List<PetRecord>> makeResponseRequest(Map<String, Object> queryParams) {
+        var uriBuilder = fromUriString("http://localhost")
             .pathSegment("pets")
             .port(port)
             .queryParams(toMultiValMap(queryParams));
 
         log.info("making request to {}", uriBuilder.toUriString());
-        return restTemplate.exchange(uriBuilder.toUriString(), GET, null, type).getBody();
+        return restTemplate.exchange(uriBuilder.toUriString(), GET, null, type);
+    }
+
+    protected CriteriaOperatorPageResult<PetRecord> makePageRequest(Map<String, Object> queryParams) {
+        return makePageRequest(new String[0], queryParams);
+    }
+
+    protected CriteriaOperatorPageResult<PetRecord> makePageRequest(String[] pageSegments, Map<String, Object> queryParams) {
+        return makePageResponseRequest(pageSegments, queryParams).getBody();
+    }
+
+    protected ResponseEntity<CriteriaOperatorPageResult<PetRecord>> makePageResponseRequest(String[] pageSegments, Map<String, Object> queryParams) {
+        var uriBuilder = fromUriString("http://localhost")
+                .pathSegment("pets")
+                .pathSegment("page")
+                .pathSegment(pageSegments)
+                .port(port)
+                .queryParams(toMultiValMap(queryParams));
+
+        log.info("making request to {}", uriBuilder.toUriString());
+        return restTemplate.exchange(uriBuilder.toUriString(), GET, null, pageType);
+    }
+
+    protected String makeExportRequest(Map<String, Object> queryParams) {
+        var uriBuilder = fromUriString("http://localhost")
+                .pathSegment("pets")
+                .pathSegment("export")
+                .port(port)
+                .queryParams(toMultiValMap(queryParams));
+
+        log.info("making request to {}", uriBuilder.toUriString());
+        return restTemplate.exchange(uriBuilder.toUriString(), GET, null, String.class).getBody();
     }
 
     protected Integer makeCountRequest(Map<String, Object> queryParams) {
-        var uriBuilder = fromHttpUrl("http://localhost")
+        return makeCountRequest(new String[0], queryParams);
+    }
+
+    protected Integer makeCountRequest(String[] countSegments, Map<String, Object> queryParams) {
+        var uriBuilder = fromUriString("http://localhost")
                 .pathSegment("pets")
                 .pathSegment("count")
+                .pathSegment(countSegments)
                 .port(port)
                 .queryParams(toMultiValMap(queryParams));
 
@@ -0,0 +1,48 @@
+package md.adrian.crop.petshop;
+
+import md.adrian.crop.CriteriaOperatorOrder;
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.service.CriteriaOperatorBinder;
+import md.adrian.crop.service.CriteriaOperatorTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetBatchSearchTest extends BaseSearchTest {
+
+    @Autowired
+    private CriteriaOperatorTemplate<Pet, PetCriteriaOperator> petSearchTemplate;
+
+    @Autowired
+    private CriteriaOperatorBinder<PetCriteriaOperator> petSearchBinder;
+
+    @Autowired
+    private QueryEventRecorder queryEventRecorder;
+
+    @Test
+    void shouldFindEachSearchInOneQuery() {
+        var searches = List.of(
+            petSearchBinder.bind(Map.of("type.eq", new String[]{"dog"})),
+            petSearchBinder.bind(Map.of("price.lt", new String[]{"2"}, "active.eq", new String[]{"true"})),
+            petSearchBinder.bind(Map.of("nickname.startsWith", new String[]{"Bailey1"})),
+            petSearchBinder.bind(Map.of("id.eq", new String[]{"1"}, "id.neq", new String[]{"1"})),
+            petSearchBinder.bind(Map.of("features.eq", new String[]{"cute"}))
+        );
+        var order = new CriteriaOperatorOrder();
+        order.setOrder(List.of("-id"));
+
+        var actual = petSearchTemplate.getResultLists(searches, order);
+
+        assertThat(actual)
+            .map(pets -> pets.stream().map(Pet::getId).toList())
+            .containsExactly(List.of(2L, 1L), List.of(3L), List.of(10L), List.of(), List.of(2L, 1L));
+        var event = queryEventRecorder.getLastEvent();
+        assertThat(event.kind()).isEqualTo("batch");
+        assertThat(event.rows()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,38 @@
+package md.adrian.crop.petshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetCountTest extends BaseSearchTest {
+
+    @Test
+    void shouldCapCountAtLimit() {
+        var actual = makeCountRequest(new String[]{"capped"}, Map.of("price.lt", "2", "limit", "5"));
+
+        assertThat(actual).isEqualTo(5);
+    }
+
+    @Test
+    void shouldCountBelowLimit() {
+        var actual = makeCountRequest(new String[]{"capped"}, Map.of("features.in", "fast,cute", "limit", "5"));
+
+        assertThat(actual).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEstimateCountWithoutFilters() {
+        var actual = makeCountRequest(new String[]{"estimate"}, Map.of());
+
+        assertThat(actual).isEqualTo(10);
+    }
+
+    @Test
+    void shouldCountExactlyWithFilters() {
+        var actual = makeCountRequest(new String[]{"estimate"}, Map.of("price.lt", "2"));
+
+        assertThat(actual).isEqualTo(8);
+    }
+}
@@ -0,0 +1,105 @@
+package md.adrian.crop.petshop;
+
+import md.adrian.crop.CriteriaOperatorOrder;
+import md.adrian.crop.CriteriaOperatorPage;
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.petshop.search.PetRecord;
+import md.adrian.crop.service.CriteriaOperatorService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static md.adrian.crop.petshop.search.PetController.NEXT_CURSOR_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetKeysetPageTest extends BaseSearchTest {
+
+    @Autowired
+    private CriteriaOperatorService cropService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldSeekPagesInSortOrder() {
+        var ids = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            var params = new HashMap<String, Object>(Map.of("order", "price", "size", "3"));
+            if (cursor != null) {
+                params.put("after", cursor);
+            }
+            var response = makeResponseRequest(params);
+            response.getBody().stream().map(PetRecord::id).forEach(ids::add);
+            cursor = response.getBody().isEmpty() ? null : response.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(ids).containsExactly(4L, 5L, 6L, 7L, 8L, 9L, 10L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void shouldSeekDescendingOrder() {
+        var first = makeResponseRequest(Map.of("order", "-birthdate", "size", "2"));
+        var cursor = first.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+
+        var actual = makeRequest(Map.of("order", "-birthdate", "size", "2", "after", cursor));
+
+        assertThat(first.getBody()).map(PetRecord::id).containsExactly(3L, 4L);
+        assertThat(actual).map(PetRecord::id).containsExactly(5L, 6L);
+    }
+
+    @Test
+    void shouldSeekJoinedAttributeOrder() {
+        var ids = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            var params = new HashMap<String, Object>(Map.of("order", "-petType.code", "size", "4"));
+            if (cursor != null) {
+                params.put("after", cursor);
+            }
+            var response = makeResponseRequest(params);
+            response.getBody().stream().map(PetRecord::id).forEach(ids::add);
+            cursor = response.getBody().isEmpty() ? null : response.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(ids).containsExactly(4L, 5L, 6L, 7L, 8L, 9L, 10L, 1L, 2L, 3L);
+    }
+
+    @Test
+    @Transactional
+    void shouldSeekPastNullSortValues() {
+        for (long id = 11; id <= 12; id++) {
+            var pet = new Pet();
+            pet.setId(id);
+            pet.setName("Stray" + id);
+            entityManager.persist(pet);
+        }
+
+        assertThat(seekAll("price")).containsExactly(4L, 5L, 6L, 7L, 8L, 9L, 10L, 3L, 2L, 1L, 11L, 12L);
+        assertThat(seekAll("-petType.code")).containsExactly(4L, 5L, 6L, 7L, 8L, 9L, 10L, 1L, 2L, 3L, 11L, 12L);
+    }
+
+    private List<Long> seekAll(String sortAttribute) {
+        var order = new CriteriaOperatorOrder();
+        order.setOrder(List.of(sortAttribute));
+        var ids = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            var page = new CriteriaOperatorPage();
+            page.setSize(5);
+            page.setAfter(cursor);
+            var builder = cropService.create(Pet.class, new PetCriteriaOperator(), order, page);
+            var pets = builder.getResultList();
+            pets.stream().map(Pet::getId).forEach(ids::add);
+            cursor = pets.isEmpty() ? null : builder.getCursor(pets.get(pets.size() - 1));
+        } while (cursor != null);
+        return ids;
+    }
+}
@@ -1,6 +1,8 @@
 package md.adrian.crop.petshop;
 
+import md.adrian.crop.petshop.search.PetRecord;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
 
 import java.util.Map;
 
@@ -24,4 +26,83 @@ public class PetOrderLimitTest extends BaseSearchTest {
         var second = actual.get(1);
         assertThat(second.id()).isEqualTo(6L);
     }
+
+    @Test
+    void shouldFindPageWithTotal() {
+        var actual = makePageRequest(Map.of(
+                "order", "price,-id",
+                "size", "2",
+                "offset", "3"
+        ));
+
+        assertThat(actual.content())
+                .map(PetRecord::id)
+                .containsExactly(7L, 6L);
+        assertThat(actual.total()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldFindLastPageWithTotal() {
+        var actual = makePageRequest(Map.of(
+                "active.eq", "false",
+                "size", "5",
+                "offset", "5"
+        ));
+
+        assertThat(actual.content()).hasSize(4);
+        assertThat(actual.total()).isEqualTo(9);
+    }
+
+    @Test
+    void shouldFindPageWithTotalAsync() {
+        var actual = makePageRequest(new String[]{"async"}, Map.of(
+                "order", "price,-id",
+                "size", "2",
+                "offset", "3"
+        ));
+
+        assertThat(actual.content())
+                .map(PetRecord::id)
+                .containsExactly(7L, 6L);
+        assertThat(actual.total()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldSortByJoinedAttribute() {
+        var actual = makeRequest(Map.of(
+                "order", "petType.code,-id",
+                "size", "3"
+        ));
+
+        assertThat(actual)
+                .map(PetRecord::id)
+                .containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void shouldRejectUnknownOrder() {
+        var actual = makeResponseRequest(Map.of("order", "nickname"));
+
+        assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldRejectOrderThatIsNotSortable() {
+        var actual = makePageResponseRequest(new String[]{"catalog"}, Map.of("order", "active"));
+
+        assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldSortBySortableJoinedAttribute() {
+        var actual = makePageRequest(new String[]{"catalog"}, Map.of(
+                "order", "-petType.code,-price",
+                "size", "2",
+                "offset", "7"
+        ));
+
+        assertThat(actual.content())
+                .map(PetRecord::id)
+                .containsExactly(1L, 2L);
+    }
 }
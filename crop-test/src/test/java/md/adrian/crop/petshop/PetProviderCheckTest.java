@@ -0,0 +1,40 @@
+package md.adrian.crop.petshop;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import md.adrian.crop.exception.CriteriaOperatorException;
+import md.adrian.crop.operator.InListStrategy;
+import md.adrian.crop.operator.TextSearchDialect;
+import md.adrian.crop.service.CriteriaOperatorService;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PetProviderCheckTest {
+
+    private final EntityManager otherProvider = proxy(EntityManager.class, proxy(CriteriaBuilder.class, null));
+
+    @Test
+    void shouldRejectArrayInListStrategyOfAnotherProvider() {
+        var builder = CriteriaOperatorService.builder(otherProvider).inListStrategy(InListStrategy.hibernateArray(64));
+
+        assertThatThrownBy(builder::build)
+            .isInstanceOf(CriteriaOperatorException.class)
+            .hasMessageContaining("Hibernate");
+    }
+
+    @Test
+    void shouldRejectPostgresTextSearchDialectOfAnotherProvider() {
+        var builder = CriteriaOperatorService.builder(otherProvider).textSearchDialect(TextSearchDialect.hibernatePostgres("english"));
+
+        assertThatThrownBy(builder::build)
+            .isInstanceOf(CriteriaOperatorException.class)
+            .hasMessageContaining("Hibernate");
+    }
+
+    private static <T> T proxy(Class<T> type, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> result));
+    }
+}
@@ -0,0 +1,107 @@
+package md.adrian.crop.petshop;
+
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.petshop.search.PetRecord;
+import md.adrian.crop.service.CriteriaOperatorBinder;
+import md.adrian.crop.service.CriteriaOperatorTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetQueryCacheTest extends BaseSearchTest {
+
+    @Autowired
+    private CriteriaOperatorTemplate<Pet, PetCriteriaOperator> petSearchTemplate;
+
+    @Autowired
+    private CriteriaOperatorBinder<PetCriteriaOperator> petSearchBinder;
+
+    @Test
+    void shouldReuseQueryForSameShape() {
+        makeRequest(Map.of("nickname.like", "Bai", "price.lt", "2"));
+        var before = petSearchTemplate.getQueryCacheStatistics();
+
+        var actual = makeRequest(Map.of("nickname.like", "Br", "price.lt", "10"));
+
+        var after = petSearchTemplate.getQueryCacheStatistics();
+        assertThat(after.hitCount()).isEqualTo(before.hitCount() + 1);
+        assertThat(after.missCount()).isEqualTo(before.missCount());
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactly(2L);
+    }
+
+    @Test
+    void shouldNotReuseQueryForDifferentShape() {
+        makeRequest(Map.of("birthdate.gte", "2001-01-01"));
+        var before = petSearchTemplate.getQueryCacheStatistics();
+
+        makeRequest(Map.of("birthdate.lte", "2001-01-01"));
+
+        var after = petSearchTemplate.getQueryCacheStatistics();
+        assertThat(after.missCount()).isEqualTo(before.missCount() + 1);
+    }
+
+    @Test
+    void shouldReuseQueryForInListsPaddedToSameSize() {
+        makeRequest(Map.of("id.in", "1,3,5"));
+        var before = petSearchTemplate.getQueryCacheStatistics();
+
+        var actual = makeRequest(Map.of("id.in", "2,4,6,8"));
+
+        var after = petSearchTemplate.getQueryCacheStatistics();
+        assertThat(after.hitCount()).isEqualTo(before.hitCount() + 1);
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactlyInAnyOrder(2L, 4L, 6L, 8L);
+    }
+
+    @Test
+    void shouldReuseQueryForInListsCompactedToSameRanges() {
+        makeRequest(Map.of("id.in", "1,2,3,4,9"));
+        var before = petSearchTemplate.getQueryCacheStatistics();
+
+        var actual = makeRequest(Map.of("id.in", "8,5,6,7,10"));
+
+        var after = petSearchTemplate.getQueryCacheStatistics();
+        assertThat(after.hitCount()).isEqualTo(before.hitCount() + 1);
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactlyInAnyOrder(5L, 6L, 7L, 8L, 10L);
+    }
+
+    @Test
+    void shouldShareCachedQueriesBetweenConcurrentSearches() {
+        List<PetCriteriaOperator> searches = List.of(
+            petSearchBinder.bind(Map.of("type.eq", new String[]{"dog"})),
+            petSearchBinder.bind(Map.of("type.eq", new String[]{"cat"})),
+            petSearchBinder.bind(Map.of("id.in", new String[]{"4,6,8"})),
+            petSearchBinder.bind(Map.of("id.in", new String[]{"5,7,9"}))
+        );
+        List<List<Long>> expected = List.of(List.of(1L, 2L), List.of(3L), List.of(4L, 6L, 8L), List.of(5L, 7L, 9L));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<List<Pet>>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(petSearchTemplate.create(searches.get(i % searches.size())).getResultListAsync(executor));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                assertThat(futures.get(i).join())
+                    .map(Pet::getId)
+                    .containsExactlyInAnyOrderElementsOf(expected.get(i % expected.size()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package md.adrian.crop.petshop;
+
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.petshop.domain.PetCategory_;
+import md.adrian.crop.petshop.domain.PetType_;
+import md.adrian.crop.petshop.domain.Pet_;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.service.CriteriaOperatorBinder;
+import md.adrian.crop.service.CriteriaOperatorService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetQueryListenerTest extends BaseSearchTest {
+
+    @Autowired
+    private QueryEventRecorder queryEventRecorder;
+
+    @Autowired
+    private CriteriaOperatorService cropService;
+
+    @Autowired
+    private CriteriaOperatorBinder<PetCriteriaOperator> petSearchBinder;
+
+    @Test
+    void shouldReportListQuery() {
+        makeRequest(Map.of("type.eq", "dog", "size", "5", "offset", "0"));
+
+        var event = queryEventRecorder.getLastEvent();
+        assertThat(event.kind()).isEqualTo("list");
+        assertThat(event.rootType()).isEqualTo(Pet.class);
+        assertThat(event.shape()).contains("_eq");
+        assertThat(event.joins()).isEqualTo(1);
+        assertThat(event.rows()).isEqualTo(2);
+        assertThat(event.pageSize()).isEqualTo(5);
+        assertThat(event.offset()).isZero();
+        assertThat(event.buildTime()).isPositive();
+        assertThat(event.executionTime()).isPositive();
+    }
+
+    @Test
+    void shouldReportCountQuery() {
+        makeCountRequest(Map.of("active.eq", "false"));
+
+        var event = queryEventRecorder.getLastEvent();
+        assertThat(event.kind()).isEqualTo("count");
+        assertThat(event.joins()).isZero();
+        assertThat(event.rows()).isEqualTo(9);
+        assertThat(event.pageSize()).isNull();
+    }
+
+    @Test
+    void shouldNotQueryContradictoryOperators() {
+        makeCountRequest(Map.of("active.eq", "false"));
+        var event = queryEventRecorder.getLastEvent();
+
+        assertThat(makeCountRequest(Map.of("id.eq", "1", "id.neq", "1"))).isZero();
+        assertThat(queryEventRecorder.getLastEvent()).isSameAs(event);
+    }
+
+    @Test
+    void shouldShareJoinOfSeparateMatchesOnSameAssociation() {
+        var search = petSearchBinder.bind(Map.of("type.eq", new String[]{"dog"}, "category.eq", new String[]{"animal"}));
+
+        var actual = cropService.create(Pet.class, search)
+            .join(Pet_.petType)
+                .match(PetType_.code, PetCriteriaOperator::getType)
+            .endJoin()
+            .join(Pet_.petType)
+                .join(PetType_.petCategory)
+                    .match(PetCategory_.code, PetCriteriaOperator::getCategory)
+                .endJoin()
+            .endJoin()
+            .getResultList();
+
+        assertThat(actual).map(Pet::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(queryEventRecorder.getLastEvent().joins()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotFilterThroughLeftJoinOfFetch() {
+        var search = petSearchBinder.bind(Map.of("type.eq", new String[]{"dog"}));
+
+        var actual = cropService.create(Pet.class, search)
+            .fetch(Pet_.petType)
+            .join(Pet_.petType)
+                .match(PetType_.code, PetCriteriaOperator::getType)
+            .endJoin()
+            .getResultList();
+
+        assertThat(actual).map(Pet::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(queryEventRecorder.getLastEvent().joins()).isEqualTo(2);
+    }
+}
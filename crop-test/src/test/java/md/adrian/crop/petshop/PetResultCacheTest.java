@@ -0,0 +1,91 @@
+package md.adrian.crop.petshop;
+
+import jakarta.persistence.EntityManager;
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.petshop.search.PetRecord;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.petshop.search.PetCriteriaOperatorTemplate;
+import md.adrian.crop.service.CriteriaOperatorResultCache;
+import md.adrian.crop.service.CriteriaOperatorService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetResultCacheTest extends BaseSearchTest {
+
+    private static final String[] CATALOG = {"catalog"};
+
+    @Autowired
+    private CriteriaOperatorResultCache resultCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldServeRepeatedSearchFromCache() {
+        var expected = makePageRequest(CATALOG, Map.of("type.eq", "cat", "size", "5"));
+        var before = resultCache.getStatistics();
+
+        var actual = makePageRequest(CATALOG, Map.of("type.eq", "cat", "size", "5"));
+
+        var after = resultCache.getStatistics();
+        assertThat(after.hitCount()).isEqualTo(before.hitCount() + 1);
+        assertThat(after.missCount()).isEqualTo(before.missCount());
+        assertThat(after.rowCount()).isPositive();
+        assertThat(actual.content()).isEqualTo(expected.content());
+    }
+
+    @Test
+    void shouldInvalidateOnEntityChange() {
+        makePageRequest(CATALOG, Map.of("type.eq", "dog", "size", "5"));
+        var before = resultCache.getStatistics();
+
+        setPrice(2L, new BigDecimal("9.2"));
+        try {
+            var actual = makePageRequest(CATALOG, Map.of("type.eq", "dog", "size", "5"));
+
+            var after = resultCache.getStatistics();
+            assertThat(after.invalidationCount()).isGreaterThan(before.invalidationCount());
+            assertThat(after.missCount()).isEqualTo(before.missCount() + 1);
+            assertThat(actual.content())
+                .filteredOn(pet -> pet.id() == 2L)
+                .map(PetRecord::price)
+                .containsExactly(new BigDecimal("9.20"));
+        } finally {
+            setPrice(2L, new BigDecimal("8.2"));
+        }
+    }
+
+    @Test
+    void shouldNotInvalidateCacheOfAnotherService() {
+        var otherCache = new CriteriaOperatorResultCache(16, Duration.ofMinutes(1));
+        var otherTemplate = PetCriteriaOperatorTemplate.template(new CriteriaOperatorService(entityManager))
+            .resultCache(otherCache)
+            .build();
+        otherTemplate.create(new PetCriteriaOperator()).getCount();
+        otherTemplate.create(new PetCriteriaOperator()).getCount();
+
+        setPrice(2L, new BigDecimal("9.2"));
+        try {
+            var after = otherCache.getStatistics();
+            assertThat(after.invalidationCount()).isZero();
+            assertThat(after.hitCount()).isEqualTo(1);
+            assertThat(after.size()).isEqualTo(1);
+        } finally {
+            setPrice(2L, new BigDecimal("8.2"));
+        }
+    }
+
+    private void setPrice(Long id, BigDecimal price) {
+        transactionTemplate.executeWithoutResult(status -> entityManager.find(Pet.class, id).setPrice(price));
+    }
+}
@@ -7,6 +7,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -28,6 +30,13 @@ class PetSearchTest extends BaseSearchTest {
         assertThat(actual).isEqualTo(1);
     }
 
+    @Test
+    void shouldCountByLocalDateBetweenAndBoolean() {
+        var actual = makeCountRequest(Map.of("birthdate.btw", "2002-12-01,2010-01-11", "active.eq", "false", "order", "id"));
+
+        assertThat(actual).isEqualTo(8);
+    }
+
     @Test
     void shouldFindByNeq() {
         var actual = makeRequest(Map.of("id.neq", "2"));
@@ -41,10 +50,27 @@ class PetSearchTest extends BaseSearchTest {
 
         assertThat(actual).hasSize(3)
             .map(PetRecord::id)
-            .asList()
             .hasSameElementsAs(Set.of(1L, 2L, 3L));
     }
 
+    @Test
+    void shouldFindByUnsortedIdInWithDuplicatesAndNeq() {
+        var actual = makeRequest(Map.of("id.in", "9,3,1,2,2,5,9", "id.neq", "5"));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactlyInAnyOrder(1L, 2L, 3L, 9L);
+    }
+
+    @Test
+    void shouldSkipEmptyInValue() {
+        var actual = makeRequest(Map.of("id.in", "1,"));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactly(1L);
+    }
+
     @Test
     void shouldFindByLocalDateBetween() {
         class Util {
@@ -64,6 +90,116 @@ class PetSearchTest extends BaseSearchTest {
             .allMatch(date -> Util.isBetween(startDate, date, endDate));
     }
 
+    @Test
+    void shouldFindByBigDecimalRange() {
+        var actual = makeRequest(Map.of("price.gte", "1.5", "price.lte", "10"));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void shouldFindByAllOperatorsOfField() {
+        var actual = makeRequest(Map.of("nickname.like", "Bailey", "nickname.neq", "Bailey", "id.in", "1,3,4,5"));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactlyInAnyOrder(4L, 5L);
+    }
+
+    @Test
+    void shouldFindByPrefix() {
+        var actual = makeRequest(Map.of("nickname.startsWith", "Br"));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void shouldFindBySuffix() {
+        var actual = makeRequest(Map.of("nickname.endsWith", "ey"));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void shouldMatchWildcardsLiterally() {
+        var actual = makeRequest(Map.of("nickname.contains", "_"));
+
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void shouldFindCaseInsensitive() {
+        var equal = makeRequest(Map.of("nickname.ieq", "BAILEY"));
+        var prefix = makeRequest(Map.of("nickname.istartsWith", "bailey1"));
+
+        assertThat(equal)
+            .map(PetRecord::id)
+            .containsExactly(3L);
+        assertThat(prefix)
+            .map(PetRecord::id)
+            .containsExactly(10L);
+    }
+
+    @Test
+    void shouldFindByFullTextSearch() {
+        var actual = makeRequest(Map.of("text.query", "BAILEY"));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactly(3L);
+    }
+
+    @Test
+    void shouldFindByLargeInList() {
+        var ids = LongStream.rangeClosed(1, 1_000).map(id -> id * 2).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        var actual = makeRequest(Map.of("id.in", ids));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactlyInAnyOrder(2L, 4L, 6L, 8L, 10L);
+    }
+
+    @Test
+    void shouldFindNothingByEmptyRange() {
+        var actual = makeRequest(Map.of("price.gt", "100", "price.lt", "50"));
+
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void shouldFindByEqualInListOfAnotherScale() {
+        var actual = makeRequest(Map.of("price.eq", "1.9", "price.in", "1.90,8.2"));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactly(3L);
+    }
+
+    @Test
+    void shouldFindByInListWithoutNotEqualOfAnotherScale() {
+        var actual = makeRequest(Map.of("price.in", "1.9,8.2", "price.neq", "8.20"));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactly(3L);
+    }
+
+    @Test
+    void shouldFindByEqualInList() {
+        var actual = makeRequest(Map.of("id.eq", "2", "id.in", "2,3"));
+
+        assertThat(actual)
+            .map(PetRecord::id)
+            .containsExactly(2L);
+    }
+
     @Test
     void shouldFindByBigDecimalGte() {
         var gtePrice = new BigDecimal("8.2");
@@ -120,4 +256,28 @@ class PetSearchTest extends BaseSearchTest {
 
         assertThat(actual).isEqualTo(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldExportAllMatching() {
+        var actual = makeExportRequest(Map.of("price.lt", "2", "order", "-id"));
+
+        assertThat(actual.lines())
+            .hasSize(9)
+            .first()
+            .isEqualTo("id,name,birthdate,price");
+        assertThat(actual.lines().skip(1))
+            .first()
+            .asString()
+            .startsWith("10,Bailey10,2010-01-11,");
+    }
+
+    @Test
+    void shouldProjectJoinedAttribute() {
+        var actual = makePageRequest(Map.of("type.eq", "cat"));
+
+        assertThat(actual.content())
+            .singleElement()
+            .isEqualTo(new PetRecord(3L, LocalDate.parse("2010-01-11"), "cat", "Bailey", new BigDecimal("1.90"), true));
+        assertThat(actual.total()).isEqualTo(1);
+    }
+}
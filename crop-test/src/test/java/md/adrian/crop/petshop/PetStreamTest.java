@@ -0,0 +1,64 @@
+package md.adrian.crop.petshop;
+
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.petshop.domain.Pet_;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.service.CriteriaOperatorService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetStreamTest extends BaseSearchTest {
+
+    @Autowired
+    private CriteriaOperatorService cropService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QueryEventRecorder queryEventRecorder;
+
+    @Test
+    @Transactional
+    void shouldClearPersistenceContextWhileStreaming() {
+        List<Integer> managed = new ArrayList<>();
+        List<Pet> pets = new ArrayList<>();
+
+        try (Stream<Pet> stream = cropService.create(Pet.class, new PetCriteriaOperator()).fetch(Pet_.petType).getResultStream(4, 2)) {
+            stream.forEach(pet -> {
+                pets.add(pet);
+                managed.add(getManagedEntityCount());
+            });
+        }
+
+        assertThat(pets).hasSize(10);
+        assertThat(managed).allMatch(count -> count <= 2 * 3);
+        assertThat(entityManager.contains(pets.get(0).getPetType())).isFalse();
+        assertThat(getManagedEntityCount()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void shouldReportStreamOnceClosed() {
+        try (Stream<Pet> stream = cropService.create(Pet.class, new PetCriteriaOperator()).getResultStream(4)) {
+            assertThat(stream.limit(3)).hasSize(3);
+        }
+
+        var event = queryEventRecorder.getLastEvent();
+        assertThat(event.kind()).isEqualTo("stream");
+        assertThat(event.rows()).isEqualTo(3);
+    }
+
+    private int getManagedEntityCount() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+}
@@ -0,0 +1,144 @@
+package md.adrian.crop.petshop;
+
+import md.adrian.crop.CriteriaOperatorOrder;
+import md.adrian.crop.exception.CriteriaOperatorException;
+import md.adrian.crop.operator.CriteriaOperatorParameters;
+import md.adrian.crop.petshop.domain.Pet;
+import md.adrian.crop.petshop.domain.PetFeature_;
+import md.adrian.crop.petshop.domain.PetType_;
+import md.adrian.crop.petshop.domain.Pet_;
+import md.adrian.crop.petshop.search.PetCriteriaOperator;
+import md.adrian.crop.service.CriteriaOperatorBinder;
+import md.adrian.crop.service.CriteriaOperatorService;
+import md.adrian.crop.service.CriteriaOperatorTemplate;
+import md.adrian.crop.service.JoinStrategy;
+import jakarta.persistence.criteria.Expression;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PetTemplateTest extends BaseSearchTest {
+
+    @Autowired
+    private CriteriaOperatorService cropService;
+
+    @Autowired
+    private CriteriaOperatorBinder<PetCriteriaOperator> petSearchBinder;
+
+    private CriteriaOperatorTemplate<Pet, PetCriteriaOperator> template;
+
+    @BeforeEach
+    void buildTemplate() {
+        template = cropService.template(Pet.class, PetCriteriaOperator.class)
+            .match(Pet_.name, PetCriteriaOperator::getNickname)
+            .join(Pet_.petType)
+                .match(PetType_.code, PetCriteriaOperator::getType)
+            .endJoin()
+            .build();
+    }
+
+    @Test
+    void shouldFindByDeclaredChain() {
+        var search = petSearchBinder.bind(Map.of("type.eq", new String[]{"unknown"}, "nickname.like", new String[]{"y1"}));
+
+        var actual = template.create(search).getResultList();
+
+        assertThat(actual).map(Pet::getId).containsExactly(10L);
+    }
+
+    @Test
+    void shouldKeepTemplateMatchesWhenBuilderAddsItsOwn() {
+        var search = petSearchBinder.bind(Map.of("type.eq", new String[]{"dog"}, "price.gt", new String[]{"10"}));
+
+        var extended = template.create(search).match(Pet_.price, PetCriteriaOperator::getPrice).getResultList();
+        var shared = template.create(search).getResultList();
+
+        assertThat(extended).map(Pet::getId).containsExactly(1L);
+        assertThat(shared).map(Pet::getId).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void shouldFetchAssociationThroughMatchJoin() {
+        var search = petSearchBinder.bind(Map.of("type.eq", new String[]{"cat"}));
+
+        var fetched = template.create(search).fetch(Pet_.petType).getResultList();
+        var lazy = template.create(search).getResultList();
+
+        assertThat(fetched).singleElement().satisfies(pet -> {
+            assertThat(Hibernate.isInitialized(pet.getPetType())).isTrue();
+            assertThat(pet.getPetType().getCode()).isEqualTo("cat");
+        });
+        assertThat(lazy).singleElement().satisfies(pet -> assertThat(Hibernate.isInitialized(pet.getPetType())).isFalse());
+    }
+
+    @Test
+    void shouldNotChangeSearchWhenNormalizing() {
+        var search = petSearchBinder.bind(Map.of("type.in", new String[]{"dog"}));
+
+        var actual = template.create(search).getResultList();
+        var bound = new ArrayList<String>();
+        search.getType().bind(new CriteriaOperatorParameters() {
+            @Override
+            public void bind(String name, Object value) {
+                bound.add(name);
+            }
+
+            @Override
+            public <V> Expression<V> parameter(String name, Class<V> type) {
+                return null;
+            }
+        });
+
+        assertThat(actual).map(Pet::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(bound).containsExactly("in0");
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void shouldRejectSearchOfAnotherType() {
+        CriteriaOperatorTemplate rawTemplate = template;
+
+        assertThatThrownBy(() -> rawTemplate.create("type.eq=dog"))
+            .isInstanceOf(CriteriaOperatorException.class);
+    }
+
+    @Test
+    void shouldOrderJoinedCollectionBySelectedAttribute() {
+        var search = petSearchBinder.bind(Map.of("features.in", new String[]{"fast", "cute"}));
+        var order = new CriteriaOperatorOrder();
+        order.setOrder(List.of("-name"));
+
+        var actual = cropService.create(Pet.class, search, order, null)
+            .join(Pet_.features, JoinStrategy.JOIN)
+                .match(PetFeature_.feature, PetCriteriaOperator::getFeatures)
+            .endJoin()
+            .getResultList();
+
+        assertThat(actual).hasSize(2).map(Pet::getName).isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+
+    @Test
+    void shouldRejectOrderOfJoinedCollectionByUnselectedAttribute() {
+        var search = petSearchBinder.bind(Map.of("features.in", new String[]{"fast", "cute"}));
+        var order = new CriteriaOperatorOrder();
+        order.setOrder(List.of("petType.code"));
+
+        var builder = cropService.create(Pet.class, search, order, null)
+            .join(Pet_.features, JoinStrategy.JOIN)
+                .match(PetFeature_.feature, PetCriteriaOperator::getFeatures)
+            .endJoin();
+
+        assertThatThrownBy(builder::getResultList)
+            .isInstanceOf(CriteriaOperatorException.class)
+            .hasMessageContaining("petType.code");
+        assertThat(builder.fetch(Pet_.petType).getResultList()).hasSize(2);
+    }
+}
@@ -12,10 +12,16 @@ import java.util.List;
 public class CriteriaOperatorOrder {
     List<String> order;
 
+    /**
+     * @return the field names, prefixed with '-' for descending order
+     */
     public List<String> getOrder() {
         return order;
     }
 
+    /**
+     * @param order the field names, prefixed with '-' for descending order
+     */
     public void setOrder(List<String> order) {
         this.order = order;
     }
@@ -4,33 +4,63 @@ import md.adrian.crop.annotation.Experimental;
 
 /**
  * Contains field that limits the query fetched result.
+ * The page is either an offset page, or a keyset page when the cursor of the previous page is provided in after.
+ * A keyset page seeks directly past the last row of the previous page, so its cost doesn't grow with the depth.
  */
 @Experimental
 public class CriteriaOperatorPage {
     private Integer size;
     private Integer offset;
+    private String after;
 
+    /**
+     * @return the maximum number of rows
+     */
     public Integer getSize() {
         return size;
     }
 
+    /**
+     * @return the number of rows skipped, for an offset page
+     */
     public Integer getOffset() {
         return offset;
     }
 
+    /**
+     * @return the cursor of the last row of the previous page, for a keyset page
+     */
+    public String getAfter() {
+        return after;
+    }
+
+    /**
+     * @param size the maximum number of rows
+     */
     public void setSize(Integer size) {
         this.size = size;
     }
 
+    /**
+     * @param offset the number of rows skipped, for an offset page
+     */
     public void setOffset(Integer offset) {
         this.offset = offset;
     }
 
+    /**
+     * @param after the cursor of the last row of the previous page, for a keyset page
+     */
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
     @Override
     public String toString() {
         return "Page{" +
                 "size=" + size +
                 ", offset=" + offset +
+                ", after=" + after +
                 '}';
     }
 }
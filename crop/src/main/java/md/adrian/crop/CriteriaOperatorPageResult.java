@@ -0,0 +1,29 @@
+package md.adrian.crop;
+
+import md.adrian.crop.annotation.Experimental;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Contains the fetched page together with the total number of entities matching the criteria operators.
+ *
+ * @param content the entities of the page
+ * @param total the number of all entities matching the criteria operators
+ * @param <T> the entity type
+ */
+@Experimental
+public record CriteriaOperatorPageResult<T>(List<T> content, long total) {
+
+    /**
+     * Maps the content of the page, keeping the total.
+     *
+     * @param mapper the mapping function
+     * @return the mapped page
+     * @param <R> the mapped type
+     */
+    public <R> CriteriaOperatorPageResult<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new CriteriaOperatorPageResult<>(mapped, total);
+    }
+}
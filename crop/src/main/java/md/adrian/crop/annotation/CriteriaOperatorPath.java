@@ -0,0 +1,21 @@
+package md.adrian.crop.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The attribute path, from the root entity, matched with a criteria operator field of a {@link CriteriaOperatorSearch} type.
+ * All the attributes but the last are joined, for example {@code petType.petCategory.code}.
+ * A collection attribute is joined with {@code exists}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface CriteriaOperatorPath {
+
+    /**
+     * @return the dotted attribute path
+     */
+    String value();
+}
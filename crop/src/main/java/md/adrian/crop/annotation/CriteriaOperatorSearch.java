@@ -0,0 +1,22 @@
+package md.adrian.crop.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a type containing criteria operator fields, for which the {@code crop-processor} annotation processor generates
+ * the match and join chain at compile time, as the {@code template} method of the {@code <Type>Template} class.
+ * Each criteria operator field is matched with the attribute of the same name, or with the path given by
+ * {@link CriteriaOperatorPath}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface CriteriaOperatorSearch {
+
+    /**
+     * @return the root entity
+     */
+    Class<?> value();
+}
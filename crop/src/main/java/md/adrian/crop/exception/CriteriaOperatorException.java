@@ -5,6 +5,9 @@ package md.adrian.crop.exception;
  */
 public class CriteriaOperatorException extends RuntimeException {
 
+    /**
+     * @param message the detail message
+     */
     public CriteriaOperatorException(String message) {
         super(message);
     }
@@ -4,7 +4,10 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The base class which holds the operators that can be applied to all data types.
@@ -14,34 +17,250 @@ import java.util.List;
  *  in
  * @param <T> the data type
  */
-public abstract class BaseCriteriaOperator<T> implements CriteriaOperator<T> {
+public abstract class BaseCriteriaOperator<T> implements ParameterizedCriteriaOperator<T>, Cloneable {
 
     private T eq;
     private T neq;
     private List<T> in;
 
+    /**
+     * {@inheritDoc}
+     * The operators are normalized in a shallow copy {@see BaseCriteriaOperator#normalize()}.
+     */
     @Override
-    public Predicate match(CriteriaBuilder criteriaBuilder, Expression<T> expression) {
+    public ParameterizedCriteriaOperator<T> normalized() {
+        BaseCriteriaOperator<T> copy = copy();
+        return copy.normalize() ? copy : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private BaseCriteriaOperator<T> copy() {
+        try {
+            return (BaseCriteriaOperator<T>) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Rewrites the set operators of the copy made by {@link #normalized()} in place.
+     * The lists are replaced, never changed, as they are shared with the original operator.
+     * An empty {@code in}, an {@code eq} equal to the {@code neq} or missing from the {@code in}
+     * can't be satisfied. Null values and duplicates and the {@code neq} value are removed from the {@code in},
+     * an {@code in} of a single value becomes an {@code eq}, and an {@code eq} makes {@code in} and {@code neq} redundant.
+     *
+     * @return false if no value can satisfy the operators
+     */
+    protected boolean normalize() {
+        if (in != null) {
+            List<T> values = distinctIn(in);
+            if (values.isEmpty() || eq != null && !containsIn(values, eq)) {
+                return false;
+            }
+            neq = null;
+            in = null;
+            if (values.size() == 1) {
+                eq = values.get(0);
+            } else if (eq == null) {
+                in = values;
+            }
+        }
+        if (eq != null) {
+            if (neq != null && isEqual(eq, neq) || !accepts(eq)) {
+                return false;
+            }
+            neq = null;
+        }
+        if (neq != null && !accepts(neq)) {
+            neq = null;
+        }
+        return true;
+    }
+
+    /**
+     * Provides the distinct values of the {@code in} that can match {@see #acceptsIn(Object)}, in a new list.
+     *
+     * @param in the values of the {@code in}
+     * @return the distinct accepted values
+     */
+    protected List<T> distinctIn(List<T> in) {
+        Set<T> values = new LinkedHashSet<>(in.size());
+        for (T value : in) {
+            if (acceptsIn(value)) {
+                values.add(value);
+            }
+        }
+        return new ArrayList<>(values);
+    }
+
+    /**
+     * Tells whether a value of the {@code in} can match: it is not null, nor the {@code neq} value,
+     * and the other operators accept it.
+     *
+     * @param value the value of the {@code in}, may be null
+     * @return true if the value can match
+     */
+    protected boolean acceptsIn(T value) {
+        return value != null && (neq == null || !isEqual(value, neq)) && accepts(value);
+    }
+
+    /**
+     * Tells whether the values are equal as the database compares them, e.g. {@code 10} and {@code 10.00} as decimals.
+     *
+     * @param value the value, not null
+     * @param other the other value, not null
+     * @return true if the values are equal
+     */
+    protected boolean isEqual(T value, T other) {
+        return value.equals(other);
+    }
+
+    /**
+     * Tells whether one of the distinct values of the {@code in} is equal to the value {@see #isEqual(Object, Object)}.
+     *
+     * @param in the values provided by {@link #distinctIn(List)}
+     * @param value the value, not null
+     * @return true if the value is one of them
+     */
+    protected boolean containsIn(List<T> in, T value) {
+        for (T inValue : in) {
+            if (isEqual(inValue, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether the other operators of a subclass accept the value, for the values of {@code eq}, {@code neq}
+     * and {@code in} to be checked against them.
+     *
+     * @param value the value
+     * @return true if the value satisfies the other operators
+     */
+    protected boolean accepts(T value) {
+        return true;
+    }
+
+    /**
+     * Tells whether the field is restricted to the values of {@code eq} or {@code in}, after normalization,
+     * which makes the other operators accepting all of them redundant.
+     *
+     * @return true if {@code eq} or {@code in} is set
+     */
+    protected boolean isEnumerated() {
+        return eq != null || in != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * All the set operators are bound, as all of them apply.
+     */
+    @Override
+    public void bind(CriteriaOperatorParameters parameters) {
+        if (eq != null) {
+            parameters.bind("eq", eq);
+        }
+        if (neq != null) {
+            parameters.bind("neq", neq);
+        }
+        if (in != null && !in.isEmpty()) {
+            bindIn(parameters, in);
+        }
+    }
+
+    /**
+     * Registers the values of the {@code in} operator, with the {@link InListStrategy} of the parameters.
+     *
+     * @param parameters the parameters
+     * @param in the values, not empty
+     */
+    protected void bindIn(CriteriaOperatorParameters parameters, List<T> in) {
+        parameters.inListStrategy().bind(parameters, "in", in);
+    }
+
+    /**
+     * Creates the predicate of the {@code in} operator for the values registered by
+     * {@link #bindIn(CriteriaOperatorParameters, List)}.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression the expression
+     * @param parameters the parameters
+     * @param in the values, not empty
+     * @return the predicate
+     */
+    protected Predicate matchIn(CriteriaBuilder criteriaBuilder, Expression<T> expression, CriteriaOperatorParameters parameters, List<T> in) {
+        return parameters.inListStrategy().in(criteriaBuilder, expression, parameters, "in", typeOf(in.get(0)), in.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     * All the set operators apply, combined with {@code and}.
+     */
+    @Override
+    public Predicate match(CriteriaBuilder criteriaBuilder, Expression<T> expression, CriteriaOperatorParameters parameters) {
+        List<Predicate> predicates = new ArrayList<>(2);
+        addPredicates(criteriaBuilder, expression, parameters, predicates);
+        if (predicates.isEmpty()) {
+            return null;
+        }
+        return predicates.size() == 1 ? predicates.get(0) : criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Adds the predicate of each set operator, subclasses add theirs along with those of the superclass.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression the expression the operators apply to
+     * @param parameters the parameters holding the values
+     * @param predicates the predicates to add to
+     */
+    protected void addPredicates(
+            CriteriaBuilder criteriaBuilder,
+            Expression<T> expression,
+            CriteriaOperatorParameters parameters,
+            List<Predicate> predicates
+    ) {
         if (eq != null) {
-            return criteriaBuilder.equal(expression, eq);
+            predicates.add(criteriaBuilder.equal(expression, parameters.parameter("eq", typeOf(eq))));
         }
         if (neq != null) {
-            return criteriaBuilder.notEqual(expression, neq);
+            predicates.add(criteriaBuilder.notEqual(expression, parameters.parameter("neq", typeOf(neq))));
         }
         if (in != null && !in.isEmpty()) {
-            return expression.in(in);
+            predicates.add(matchIn(criteriaBuilder, expression, parameters, in));
         }
-        return null;
     }
 
+    /**
+     * The class of the value, for the parameters of its type.
+     *
+     * @param value the value, not null
+     * @return the class of the value
+     * @param <V> the value type
+     */
+    @SuppressWarnings("unchecked")
+    protected static <V> Class<V> typeOf(V value) {
+        return (Class<V>) value.getClass();
+    }
+
+    /**
+     * @param eq the value to be equal to
+     */
     public void setEq(T eq) {
         this.eq = eq;
     }
 
+    /**
+     * @param neq the value not to be equal to
+     */
     public void setNeq(T neq) {
         this.neq = neq;
     }
 
+    /**
+     * @param in the values one of which to be equal to
+     */
     public void setIn(List<T> in) {
         this.in = in;
     }
@@ -0,0 +1,56 @@
+package md.adrian.crop.operator;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.List;
+
+/**
+ * Splits a list into chunks of chunk size, the last one padded but not beyond the chunk size,
+ * and combines the {@code in} of each chunk with {@code or}.
+ */
+final class ChunkedInListStrategy implements InListStrategy {
+
+    private final int chunkSize;
+
+    ChunkedInListStrategy(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void bind(CriteriaOperatorParameters parameters, String name, List<?> values) {
+        if (values.size() <= chunkSize) {
+            ParameterInListStrategy.bind(parameters, name, values, paddedSize(parameters, values.size()));
+            return;
+        }
+        for (int start = 0, chunk = 0; start < values.size(); start += chunkSize, chunk++) {
+            List<?> chunkValues = values.subList(start, Math.min(start + chunkSize, values.size()));
+            ParameterInListStrategy.bind(parameters, name + chunk + "_", chunkValues, paddedSize(parameters, chunkValues.size()));
+        }
+    }
+
+    @Override
+    public <V> Predicate in(
+            CriteriaBuilder criteriaBuilder,
+            Expression<V> expression,
+            CriteriaOperatorParameters parameters,
+            String name,
+            Class<V> type,
+            int size
+    ) {
+        if (size <= chunkSize) {
+            return ParameterInListStrategy.in(expression, parameters, name, type, paddedSize(parameters, size));
+        }
+        Predicate[] chunks = new Predicate[(size + chunkSize - 1) / chunkSize];
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            int chunkValues = Math.min(chunkSize, size - chunk * chunkSize);
+            chunks[chunk] = ParameterInListStrategy.in(expression, parameters, name + chunk + "_", type, paddedSize(parameters, chunkValues));
+        }
+        return criteriaBuilder.or(chunks);
+    }
+
+    private int paddedSize(CriteriaOperatorParameters parameters, int size) {
+        return Math.min(parameters.listSize(size), chunkSize);
+    }
+}
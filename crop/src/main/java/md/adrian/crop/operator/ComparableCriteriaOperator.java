@@ -28,47 +28,202 @@ public abstract class ComparableCriteriaOperator<T extends Comparable> extends B
 
     /**
      * {@inheritDoc}
+     * A range with the lower bound above the upper one can't be satisfied, nor can {@code eq} or {@code in} values
+     * outside of the range, while the range is redundant when all the values are inside of it.
+     * The bounds are merged into the tightest range.
+     *
+     * @throws CriteriaOperatorException if between operator is specified with wrong number of arguments, other than 2
+     */
+    @Override
+    protected boolean normalize() {
+        if (btw != null && btw.size() != 2) {
+            throw new CriteriaOperatorException("between must have two arguments");
+        }
+        Range<T> range = getRange();
+        if (range.isEmpty()) {
+            return false;
+        }
+        btw = range.isBetween() ? List.of(range.lower(), range.upper()) : null;
+        gte = !range.isBetween() && range.lowerInclusive() ? range.lower() : null;
+        gt = range.lowerInclusive() ? null : range.lower();
+        lte = !range.isBetween() && range.upperInclusive() ? range.upper() : null;
+        lt = range.upperInclusive() ? null : range.upper();
+        if (!super.normalize()) {
+            return false;
+        }
+        if (isEnumerated()) {
+            btw = null;
+            gt = null;
+            gte = null;
+            lt = null;
+            lte = null;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The values are compared, so decimals of different scales are equal, as they are in SQL.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean isEqual(T value, T other) {
+        return value.compareTo(other) == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean accepts(T value) {
+        Range<T> range = getRange();
+        if (range.lower() != null) {
+            int comparison = value.compareTo(range.lower());
+            if (comparison < 0 || comparison == 0 && !range.lowerInclusive()) {
+                return false;
+            }
+        }
+        if (range.upper() != null) {
+            int comparison = value.compareTo(range.upper());
+            return comparison < 0 || comparison == 0 && range.upperInclusive();
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The bounds are merged into a single range, the tightest lower and upper bound apply.
+     * When both are inclusive, the range is bound as a {@code between}.
      *
      * @throws CriteriaOperatorException if between operator is specified with wrong number of arguments, other than 2
      *
-     * @param criteriaBuilder the criteria builder
-     * @param expression the expression
-     * @return
+     * @param parameters the parameters
      */
     @Override
-    public Predicate match(CriteriaBuilder criteriaBuilder, Expression<T> expression) {
+    public void bind(CriteriaOperatorParameters parameters) {
         if (btw != null && btw.size() != 2) {
             throw new CriteriaOperatorException("between must have two arguments");
-        } else if (btw != null) {
-            return criteriaBuilder.between(expression, btw.get(0), btw.get(1));
-        } else if (gt != null) {
-            return criteriaBuilder.greaterThan(expression, gt);
-        } else if (gte != null) {
-            return criteriaBuilder.greaterThanOrEqualTo(expression, gte);
-        } else if (lt != null) {
-            return criteriaBuilder.lessThan(expression, lt);
-        } else if (lte != null) {
-            return criteriaBuilder.lessThanOrEqualTo(expression, lte);
-        }
-        return super.match(criteriaBuilder, expression);
+        }
+        Range<T> range = getRange();
+        if (range.isBetween()) {
+            parameters.bind("btw0", range.lower());
+            parameters.bind("btw1", range.upper());
+        } else {
+            if (range.lower() != null) {
+                parameters.bind(range.lowerInclusive() ? "gte" : "gt", range.lower());
+            }
+            if (range.upper() != null) {
+                parameters.bind(range.upperInclusive() ? "lte" : "lt", range.upper());
+            }
+        }
+        super.bind(parameters);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void addPredicates(
+            CriteriaBuilder criteriaBuilder,
+            Expression<T> expression,
+            CriteriaOperatorParameters parameters,
+            List<Predicate> predicates
+    ) {
+        Range<T> range = getRange();
+        if (range.isBetween()) {
+            Class<T> type = typeOf(range.lower());
+            predicates.add(criteriaBuilder.between(expression, parameters.parameter("btw0", type), parameters.parameter("btw1", type)));
+        } else {
+            if (range.lower() != null) {
+                Class<T> type = typeOf(range.lower());
+                predicates.add(range.lowerInclusive()
+                        ? criteriaBuilder.greaterThanOrEqualTo(expression, parameters.parameter("gte", type))
+                        : criteriaBuilder.greaterThan(expression, parameters.parameter("gt", type)));
+            }
+            if (range.upper() != null) {
+                Class<T> type = typeOf(range.upper());
+                predicates.add(range.upperInclusive()
+                        ? criteriaBuilder.lessThanOrEqualTo(expression, parameters.parameter("lte", type))
+                        : criteriaBuilder.lessThan(expression, parameters.parameter("lt", type)));
+            }
+        }
+        super.addPredicates(criteriaBuilder, expression, parameters, predicates);
+    }
+
+    /**
+     * Merges between, gt, gte, lt and lte into the tightest range, an exclusive bound wins over an inclusive one
+     * of the same value.
+     */
+    @SuppressWarnings("unchecked")
+    private Range<T> getRange() {
+        T lower = null;
+        boolean lowerInclusive = true;
+        T upper = null;
+        boolean upperInclusive = true;
+        if (btw != null && btw.size() == 2) {
+            lower = btw.get(0);
+            upper = btw.get(1);
+        }
+        if (gte != null && (lower == null || gte.compareTo(lower) > 0)) {
+            lower = gte;
+        }
+        if (gt != null && (lower == null || gt.compareTo(lower) >= 0)) {
+            lower = gt;
+            lowerInclusive = false;
+        }
+        if (lte != null && (upper == null || lte.compareTo(upper) < 0)) {
+            upper = lte;
+        }
+        if (lt != null && (upper == null || lt.compareTo(upper) <= 0)) {
+            upper = lt;
+            upperInclusive = false;
+        }
+        return new Range<>(lower, lowerInclusive, upper, upperInclusive);
+    }
+
+    private record Range<T>(T lower, boolean lowerInclusive, T upper, boolean upperInclusive) {
+
+        boolean isBetween() {
+            return lower != null && upper != null && lowerInclusive && upperInclusive;
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean isEmpty() {
+            if (lower == null || upper == null) {
+                return false;
+            }
+            int comparison = ((Comparable<T>) lower).compareTo(upper);
+            return comparison > 0 || comparison == 0 && !(lowerInclusive && upperInclusive);
+        }
     }
 
+    /**
+     * @param btw the lower and the upper bound, inclusive
+     */
     public void setBtw(List<T> btw) {
         this.btw = btw;
     }
 
+    /**
+     * @param gt the exclusive lower bound
+     */
     public void setGt(T gt) {
         this.gt = gt;
     }
 
+    /**
+     * @param gte the inclusive lower bound
+     */
     public void setGte(T gte) {
         this.gte = gte;
     }
 
+    /**
+     * @param lt the exclusive upper bound
+     */
     public void setLt(T lt) {
         this.lt = lt;
     }
 
+    /**
+     * @param lte the inclusive upper bound
+     */
     public void setLte(T lte) {
         this.lte = lte;
     }
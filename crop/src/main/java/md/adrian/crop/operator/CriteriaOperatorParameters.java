@@ -0,0 +1,61 @@
+package md.adrian.crop.operator;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import jakarta.persistence.criteria.Expression;
+
+/**
+ * Collects the values of a criteria operator and provides the expressions standing for them in a predicate.
+ * Values and expressions are linked by the operator name, e.g. {@code eq} or {@code gte}.
+ */
+public interface CriteriaOperatorParameters {
+
+    /**
+     * Registers the value of a non-null operator.
+     * The names of all registered values form the shape of the query.
+     *
+     * @param name the operator name, unique within a criteria operator
+     * @param value the value
+     */
+    void bind(String name, Object value);
+
+    /**
+     * Provides the expression that stands for the value registered with the same name.
+     *
+     * @param name the operator name
+     * @param type the value type
+     * @return the expression
+     * @param <V> the value type
+     */
+    <V> Expression<V> parameter(String name, Class<V> type);
+
+    /**
+     * Provides the number of parameters to use for a list of values, e.g. for the in operator.
+     * Lists are bound with the last value repeated up to this size,
+     * so that lists of close sizes result in the same predicate.
+     *
+     * @param size the number of values
+     * @return the number of parameters, not less than size
+     */
+    default int listSize(int size) {
+        return size;
+    }
+
+    /**
+     * Provides the strategy that renders the {@code in} operator.
+     *
+     * @return the strategy
+     */
+    default InListStrategy inListStrategy() {
+        return InListStrategy.parameters();
+    }
+
+    /**
+     * Provides the dialect that renders the full-text search predicates.
+     *
+     * @return the dialect
+     * @throws CriteriaOperatorException if there is none
+     */
+    default TextSearchDialect textSearchDialect() {
+        throw new CriteriaOperatorException("no text search dialect configured");
+    }
+}
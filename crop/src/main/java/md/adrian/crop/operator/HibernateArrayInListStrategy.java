@@ -0,0 +1,54 @@
+package md.adrian.crop.operator;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.lang.reflect.Array;
+import java.util.List;
+
+/**
+ * Binds a list above the threshold as a single array parameter, {@code x = any(?)},
+ * smaller lists as a parameter per value.
+ * Hibernate only, the predicate is embedded with its {@code sql} function {@see HibernateSqlFunction}.
+ */
+final class HibernateArrayInListStrategy implements InListStrategy {
+
+    private static final String ANY = "(? = any(?))";
+
+    private final int threshold;
+
+    HibernateArrayInListStrategy(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void check(CriteriaBuilder criteriaBuilder) {
+        HibernateSqlFunction.check(criteriaBuilder, "the array in list strategy");
+    }
+
+    @Override
+    public void bind(CriteriaOperatorParameters parameters, String name, List<?> values) {
+        if (values.size() <= threshold) {
+            ParameterInListStrategy.INSTANCE.bind(parameters, name, values);
+            return;
+        }
+        Object[] array = (Object[]) Array.newInstance(values.get(0).getClass(), values.size());
+        parameters.bind(name, values.toArray(array));
+    }
+
+    @Override
+    public <V> Predicate in(
+            CriteriaBuilder criteriaBuilder,
+            Expression<V> expression,
+            CriteriaOperatorParameters parameters,
+            String name,
+            Class<V> type,
+            int size
+    ) {
+        if (size <= threshold) {
+            return ParameterInListStrategy.INSTANCE.in(criteriaBuilder, expression, parameters, name, type, size);
+        }
+        return HibernateSqlFunction.predicate(criteriaBuilder, ANY, expression, parameters.parameter(name, type.arrayType()));
+    }
+}
@@ -0,0 +1,43 @@
+package md.adrian.crop.operator;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.regex.Pattern;
+
+/**
+ * Renders {@code to_tsvector(configuration, document) @@ plainto_tsquery(configuration, query)},
+ * which a GIN index on {@code to_tsvector(configuration, document)} serves.
+ * Hibernate only: the {@code @@} operator can't be expressed with JPA functions, so the predicate is embedded
+ * with the {@code sql} function of Hibernate 6.3 and later {@see HibernateSqlFunction},
+ * and the service fails to be created with other persistence providers.
+ */
+public class HibernatePostgresTextSearchDialect implements TextSearchDialect {
+
+    private static final Pattern CONFIGURATION = Pattern.compile("[A-Za-z_][A-Za-z0-9_.]*");
+
+    private final String sql;
+
+    /**
+     * @param configuration the text search configuration, e.g. {@code english}
+     * @throws CriteriaOperatorException if the configuration is not a name
+     */
+    public HibernatePostgresTextSearchDialect(String configuration) {
+        if (configuration == null || !CONFIGURATION.matcher(configuration).matches()) {
+            throw new CriteriaOperatorException("invalid text search configuration " + configuration);
+        }
+        this.sql = "(to_tsvector('" + configuration + "', ?) @@ plainto_tsquery('" + configuration + "', ?))";
+    }
+
+    @Override
+    public void check(CriteriaBuilder criteriaBuilder) {
+        HibernateSqlFunction.check(criteriaBuilder, "the PostgreSQL text search dialect");
+    }
+
+    @Override
+    public Predicate match(CriteriaBuilder criteriaBuilder, Expression<String> document, Expression<String> query) {
+        return HibernateSqlFunction.predicate(criteriaBuilder, sql, document, query);
+    }
+}
@@ -0,0 +1,46 @@
+package md.adrian.crop.operator;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * The {@code sql} function of Hibernate 6.3 and later, which embeds a native SQL predicate into a criteria query,
+ * e.g. {@code (? = any(?))} with an argument per {@code ?}. Other persistence providers don't have it.
+ */
+final class HibernateSqlFunction {
+
+    private HibernateSqlFunction() {
+    }
+
+    /**
+     * Checks that the criteria builder is the one of Hibernate.
+     *
+     * @param criteriaBuilder the criteria builder of the persistence provider
+     * @param user the name of the operator strategy or dialect that embeds SQL
+     * @throws CriteriaOperatorException if the persistence provider is not Hibernate
+     */
+    static void check(CriteriaBuilder criteriaBuilder, String user) {
+        if (!criteriaBuilder.getClass().getName().startsWith("org.hibernate.")) {
+            throw new CriteriaOperatorException(
+                user + " requires Hibernate 6.3 or later, not " + criteriaBuilder.getClass().getName()
+            );
+        }
+    }
+
+    /**
+     * Creates the predicate of the native SQL.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param sql the native SQL predicate, with a {@code ?} per argument
+     * @param arguments the arguments
+     * @return the predicate
+     */
+    static Predicate predicate(CriteriaBuilder criteriaBuilder, String sql, Expression<?>... arguments) {
+        Expression<?>[] sqlArguments = new Expression<?>[arguments.length + 1];
+        sqlArguments[0] = criteriaBuilder.literal(sql);
+        System.arraycopy(arguments, 0, sqlArguments, 1, arguments.length);
+        return criteriaBuilder.isTrue(criteriaBuilder.function("sql", Boolean.class, sqlArguments));
+    }
+}
@@ -0,0 +1,91 @@
+package md.adrian.crop.operator;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.List;
+
+/**
+ * Renders the {@code in} operator, so that large lists don't exceed the parameter limits of the driver or the database,
+ * nor produce a distinct statement per list size.
+ * It is configured once per {@code CriteriaOperatorService} and used by all its criteria operators.
+ */
+public interface InListStrategy {
+
+    /**
+     * Checks that the persistence provider supports the strategy, when the service is created.
+     *
+     * @param criteriaBuilder the criteria builder of the persistence provider
+     * @throws CriteriaOperatorException if the strategy is not supported
+     */
+    default void check(CriteriaBuilder criteriaBuilder) {
+    }
+
+    /**
+     * Registers the values of the list.
+     *
+     * @param parameters the parameters
+     * @param name the operator name
+     * @param values the values, not empty
+     */
+    void bind(CriteriaOperatorParameters parameters, String name, List<?> values);
+
+    /**
+     * Creates the predicate for the values registered by {@link #bind(CriteriaOperatorParameters, String, List)}.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression the expression
+     * @param parameters the parameters
+     * @param name the operator name
+     * @param type the value type
+     * @param size the number of values
+     * @return the predicate
+     * @param <V> the value type
+     */
+    <V> Predicate in(
+            CriteriaBuilder criteriaBuilder,
+            Expression<V> expression,
+            CriteriaOperatorParameters parameters,
+            String name,
+            Class<V> type,
+            int size
+    );
+
+    /**
+     * A parameter per value, {@code x in (?, ?, ...)}, the list padded {@see CriteriaOperatorParameters#listSize(int)}.
+     *
+     * @return the strategy
+     */
+    static InListStrategy parameters() {
+        return ParameterInListStrategy.INSTANCE;
+    }
+
+    /**
+     * Splits the lists larger than the chunk size into {@code x in (...) or x in (...)},
+     * each of at most chunk size parameters, e.g. 1000 for Oracle.
+     *
+     * @param chunkSize the maximum number of parameters of a single {@code in}
+     * @return the strategy
+     */
+    static InListStrategy chunks(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new CriteriaOperatorException("chunk size must be positive");
+        }
+        return new ChunkedInListStrategy(chunkSize);
+    }
+
+    /**
+     * Binds the lists larger than the threshold as a single array parameter, {@code x = any(?)},
+     * so a list of any size is a single statement, supported by PostgreSQL and H2.
+     * Hibernate only: the predicate is embedded with the {@code sql} function of Hibernate 6.3 and later,
+     * and the service fails to be created with other persistence providers.
+     *
+     * @param threshold the maximum size of the lists bound as a parameter per value
+     * @return the strategy
+     */
+    static InListStrategy hibernateArray(int threshold) {
+        return new HibernateArrayInListStrategy(threshold);
+    }
+}
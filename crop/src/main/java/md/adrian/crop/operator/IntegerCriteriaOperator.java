@@ -3,5 +3,15 @@ package md.adrian.crop.operator;
 /**
  * Criteria Operator for {@code Integer} type.
  */
-public class IntegerCriteriaOperator extends ComparableCriteriaOperator<Integer> {
+public class IntegerCriteriaOperator extends IntegralCriteriaOperator<Integer> {
+
+    @Override
+    protected long toLong(Integer value) {
+        return value;
+    }
+
+    @Override
+    protected Integer valueOf(long value) {
+        return (int) value;
+    }
 }
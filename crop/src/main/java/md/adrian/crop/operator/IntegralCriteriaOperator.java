@@ -0,0 +1,201 @@
+package md.adrian.crop.operator;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Abstract Criteria Operator for integral types, such as ids.
+ * The values of {@code in} are sorted as primitives and each run of at least {@value #MIN_RUN_LENGTH}
+ * consecutive values is matched as a {@code between} range, which the database serves with a range scan,
+ * e.g. {@code in=1,2,3,4,5,9} as {@code x between 1 and 5 or x in (9)}.
+ * The number of ranges is padded as the lists are {@see CriteriaOperatorParameters#listSize(int)}.
+ * The {@code in} values are sorted and deduplicated as primitives when normalized, and compacted then, once,
+ * so the ranges and the values outside of them are boxed once and bound as they are by every query of the execution.
+ *
+ * @param <T> the integral type
+ */
+public abstract class IntegralCriteriaOperator<T extends Comparable> extends ComparableCriteriaOperator<T> {
+
+    static final int MIN_RUN_LENGTH = 3;
+
+    /**
+     * Converts the value to a primitive.
+     *
+     * @param value the value
+     * @return the primitive value
+     */
+    protected abstract long toLong(T value);
+
+    /**
+     * Converts the primitive back to a value.
+     *
+     * @param value the primitive value
+     * @return the value
+     */
+    protected abstract T valueOf(long value);
+
+    /**
+     * {@inheritDoc}
+     * The values are sorted and deduplicated as primitives, into a list backed by the primitive array,
+     * which holds their compaction as well.
+     */
+    @Override
+    protected List<T> distinctIn(List<T> in) {
+        long[] values = new long[in.size()];
+        int size = 0;
+        for (T value : in) {
+            if (acceptsIn(value)) {
+                values[size++] = toLong(value);
+            }
+        }
+        Arrays.sort(values, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || values[i] != values[distinct - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return new SortedValues(values, distinct);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sorted values are searched as primitives.
+     */
+    @Override
+    protected boolean containsIn(List<T> in, T value) {
+        return in.contains(value);
+    }
+
+    @Override
+    protected void bindIn(CriteriaOperatorParameters parameters, List<T> in) {
+        Compaction<T> compacted = compact(in);
+        int ranges = compacted.rangeCount();
+        for (int i = 0, size = parameters.listSize(ranges); i < size; i++) {
+            int range = Math.min(i, ranges - 1);
+            parameters.bind("inRange" + i + "_0", compacted.bounds().get(2 * range));
+            parameters.bind("inRange" + i + "_1", compacted.bounds().get(2 * range + 1));
+        }
+        if (!compacted.rest().isEmpty()) {
+            super.bindIn(parameters, compacted.rest());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Predicate matchIn(CriteriaBuilder criteriaBuilder, Expression<T> expression, CriteriaOperatorParameters parameters, List<T> in) {
+        Compaction<T> compacted = compact(in);
+        Class<T> type = typeOf(in.get(0));
+        List<Predicate> predicates = new ArrayList<>();
+        for (int i = 0, size = parameters.listSize(compacted.rangeCount()); i < size; i++) {
+            predicates.add(criteriaBuilder.between(
+                    expression,
+                    parameters.parameter("inRange" + i + "_0", type),
+                    parameters.parameter("inRange" + i + "_1", type)
+            ));
+        }
+        if (!compacted.rest().isEmpty()) {
+            predicates.add(super.matchIn(criteriaBuilder, expression, parameters, compacted.rest()));
+        }
+        return predicates.size() == 1 ? predicates.get(0) : criteriaBuilder.or(predicates.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Provides the compaction made when the values were normalized, or compacts values that were not normalized.
+     */
+    @SuppressWarnings("unchecked")
+    private Compaction<T> compact(List<T> in) {
+        if (in instanceof IntegralCriteriaOperator<?>.SortedValues sorted) {
+            return (Compaction<T>) sorted.compaction;
+        }
+        long[] values = new long[in.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = toLong(in.get(i));
+        }
+        Arrays.sort(values);
+        return compactRuns(values, values.length);
+    }
+
+    private Compaction<T> compactRuns(long[] values, int size) {
+        List<T> bounds = new ArrayList<>(size / MIN_RUN_LENGTH * 2);
+        int rangeCount = 0;
+        List<T> rest = new ArrayList<>();
+        int start = 0;
+        while (start < size) {
+            int end = start;
+            int length = 1;
+            while (end + 1 < size && (values[end + 1] == values[end] || values[end + 1] == values[end] + 1)) {
+                if (values[end + 1] != values[end]) {
+                    length++;
+                }
+                end++;
+            }
+            if (length >= MIN_RUN_LENGTH) {
+                bounds.add(valueOf(values[start]));
+                bounds.add(valueOf(values[end]));
+                rangeCount++;
+            } else {
+                for (int i = start; i <= end; i++) {
+                    if (i == start || values[i] != values[i - 1]) {
+                        rest.add(valueOf(values[i]));
+                    }
+                }
+            }
+            start = end + 1;
+        }
+        return new Compaction<>(List.copyOf(bounds), rangeCount, List.copyOf(rest));
+    }
+
+    /**
+     * The sorted {@code in} values as the lower and upper bound of each range, followed by the values outside of them.
+     */
+    private record Compaction<T>(List<T> bounds, int rangeCount, List<T> rest) {
+    }
+
+    /**
+     * The sorted, distinct values of the first {@code size} elements of the array, boxed when read, and their compaction.
+     * Both are final, so the normalized operator can be bound by the queries of an execution on any thread.
+     */
+    private final class SortedValues extends AbstractList<T> implements RandomAccess {
+
+        private final long[] values;
+        private final int size;
+        private final Compaction<T> compaction;
+
+        SortedValues(long[] values, int size) {
+            this.values = values;
+            this.size = size;
+            this.compaction = compactRuns(values, size);
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return valueOf(values[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object value) {
+            try {
+                return value != null && Arrays.binarySearch(values, 0, size, toLong((T) value)) >= 0;
+            } catch (ClassCastException e) {
+                return false;
+            }
+        }
+    }
+}
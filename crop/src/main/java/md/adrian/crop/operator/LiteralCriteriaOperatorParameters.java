@@ -0,0 +1,30 @@
+package md.adrian.crop.operator;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parameters that place the bound values as literals into the predicate.
+ */
+class LiteralCriteriaOperatorParameters implements CriteriaOperatorParameters {
+
+    private final CriteriaBuilder criteriaBuilder;
+    private final Map<String, Object> values = new HashMap<>();
+
+    LiteralCriteriaOperatorParameters(CriteriaBuilder criteriaBuilder) {
+        this.criteriaBuilder = criteriaBuilder;
+    }
+
+    @Override
+    public void bind(String name, Object value) {
+        values.put(name, value);
+    }
+
+    @Override
+    public <V> Expression<V> parameter(String name, Class<V> type) {
+        return criteriaBuilder.literal(type.cast(values.get(name)));
+    }
+}
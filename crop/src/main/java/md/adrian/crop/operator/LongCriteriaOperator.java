@@ -3,5 +3,15 @@ package md.adrian.crop.operator;
 /**
  * Criteria Operator for {@code Long} type.
  */
-public class LongCriteriaOperator extends ComparableCriteriaOperator<Long> {
+public class LongCriteriaOperator extends IntegralCriteriaOperator<Long> {
+
+    @Override
+    protected long toLong(Long value) {
+        return value;
+    }
+
+    @Override
+    protected Long valueOf(long value) {
+        return value;
+    }
 }
@@ -0,0 +1,49 @@
+package md.adrian.crop.operator;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.List;
+
+/**
+ * A parameter per value, with the last value repeated up to the padded size.
+ */
+final class ParameterInListStrategy implements InListStrategy {
+
+    static final ParameterInListStrategy INSTANCE = new ParameterInListStrategy();
+
+    private ParameterInListStrategy() {
+    }
+
+    @Override
+    public void bind(CriteriaOperatorParameters parameters, String name, List<?> values) {
+        bind(parameters, name, values, parameters.listSize(values.size()));
+    }
+
+    @Override
+    public <V> Predicate in(
+            CriteriaBuilder criteriaBuilder,
+            Expression<V> expression,
+            CriteriaOperatorParameters parameters,
+            String name,
+            Class<V> type,
+            int size
+    ) {
+        return in(expression, parameters, name, type, parameters.listSize(size));
+    }
+
+    static void bind(CriteriaOperatorParameters parameters, String name, List<?> values, int paddedSize) {
+        for (int i = 0; i < paddedSize; i++) {
+            parameters.bind(name + i, values.get(Math.min(i, values.size() - 1)));
+        }
+    }
+
+    static <V> Predicate in(Expression<V> expression, CriteriaOperatorParameters parameters, String name, Class<V> type, int paddedSize) {
+        Expression<?>[] values = new Expression<?>[paddedSize];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = parameters.parameter(name + i, type);
+        }
+        return expression.in(values);
+    }
+}
@@ -0,0 +1,62 @@
+package md.adrian.crop.operator;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * A criteria operator that keeps its values out of the predicate, so that the same predicate can be reused
+ * with different values bound to it.
+ *
+ * @param <T> the type of the expression
+ */
+public interface ParameterizedCriteriaOperator<T> extends CriteriaOperator<T> {
+
+    /**
+     * Provides the set operators in an equivalent simpler form, for example a single value {@code in}
+     * as an {@code eq}, and detects the operators that no value can satisfy, such as {@code gt=100&lt=50}.
+     * The operator itself is left unchanged, the normalized one is bound and matched in its place.
+     *
+     * @return the normalized operator, this one if there is nothing to simplify,
+     *         or null if no value can satisfy the operators
+     */
+    default ParameterizedCriteriaOperator<T> normalized() {
+        return this;
+    }
+
+    /**
+     * Registers the values of the operators that take part in the predicate.
+     *
+     * @param parameters the parameters
+     */
+    void bind(CriteriaOperatorParameters parameters);
+
+    /**
+     * Creates a predicate for the operators registered by {@link #bind(CriteriaOperatorParameters)}
+     * using the parameter expressions in place of the values.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression the expression
+     * @param parameters the parameters
+     * @return the created predicate or null
+     */
+    Predicate match(CriteriaBuilder criteriaBuilder, Expression<T> expression, CriteriaOperatorParameters parameters);
+
+    /**
+     * Creates a predicate with the values as literals, a false one if no value can satisfy the operators.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression the expression
+     * @return the created predicate or null
+     */
+    @Override
+    default Predicate match(CriteriaBuilder criteriaBuilder, Expression<T> expression) {
+        ParameterizedCriteriaOperator<T> normalized = normalized();
+        if (normalized == null) {
+            return criteriaBuilder.disjunction();
+        }
+        var literals = new LiteralCriteriaOperatorParameters(criteriaBuilder);
+        normalized.bind(literals);
+        return normalized.match(criteriaBuilder, expression, literals);
+    }
+}
@@ -4,31 +4,159 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Criteria Operator for {@code String} type.
  * Additional operators:
- *  like
+ *  like - contains, the value may include the {@code %} and {@code _} wildcards
+ *  startsWith - prefix, which an index on the column can serve as a range scan
+ *  endsWith - suffix
+ *  contains - substring
+ *  ieq - case-insensitive equal
+ *  istartsWith - case-insensitive prefix
+ * The values of startsWith, endsWith, contains and istartsWith are matched literally, wildcards are escaped.
+ * The case-insensitive operators compare {@code lower(column)} with the lower-cased value,
+ * so an index on {@code lower(column)} can serve them.
  */
 public class StringCriteriaOperator extends BaseCriteriaOperator<String> {
 
+    static final char ESCAPE = '\\';
+
     private String like;
+    private String startsWith;
+    private String endsWith;
+    private String contains;
+    private String ieq;
+    private String istartsWith;
 
     @Override
-    public Predicate match(CriteriaBuilder criteriaBuilder, Expression<String> expression) {
+    public void bind(CriteriaOperatorParameters parameters) {
         if (like != null) {
-            return criteriaBuilder.like(expression, "%" + like + "%");
+            parameters.bind("like", "%" + like + "%");
+        }
+        if (startsWith != null) {
+            parameters.bind("startsWith", escape(startsWith) + "%");
+        }
+        if (endsWith != null) {
+            parameters.bind("endsWith", "%" + escape(endsWith));
+        }
+        if (contains != null) {
+            parameters.bind("contains", "%" + escape(contains) + "%");
+        }
+        if (ieq != null) {
+            parameters.bind("ieq", ieq.toLowerCase(Locale.ROOT));
+        }
+        if (istartsWith != null) {
+            parameters.bind("istartsWith", escape(istartsWith.toLowerCase(Locale.ROOT)) + "%");
+        }
+        super.bind(parameters);
+    }
+
+    @Override
+    protected void addPredicates(
+            CriteriaBuilder criteriaBuilder,
+            Expression<String> expression,
+            CriteriaOperatorParameters parameters,
+            List<Predicate> predicates
+    ) {
+        if (like != null) {
+            predicates.add(criteriaBuilder.like(expression, parameters.parameter("like", String.class)));
+        }
+        if (startsWith != null) {
+            predicates.add(criteriaBuilder.like(expression, parameters.parameter("startsWith", String.class), ESCAPE));
+        }
+        if (endsWith != null) {
+            predicates.add(criteriaBuilder.like(expression, parameters.parameter("endsWith", String.class), ESCAPE));
+        }
+        if (contains != null) {
+            predicates.add(criteriaBuilder.like(expression, parameters.parameter("contains", String.class), ESCAPE));
         }
-        return super.match(criteriaBuilder, expression);
+        if (ieq != null) {
+            predicates.add(criteriaBuilder.equal(criteriaBuilder.lower(expression), parameters.parameter("ieq", String.class)));
+        }
+        if (istartsWith != null) {
+            predicates.add(criteriaBuilder.like(
+                    criteriaBuilder.lower(expression),
+                    parameters.parameter("istartsWith", String.class),
+                    ESCAPE
+            ));
+        }
+        super.addPredicates(criteriaBuilder, expression, parameters, predicates);
+    }
+
+    /**
+     * Escapes the like wildcards and the escape character itself, so the value is matched literally.
+     */
+    static String escape(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                if (escaped == null) {
+                    escaped = new StringBuilder(value.length() + 8).append(value, 0, i);
+                }
+                escaped.append(ESCAPE);
+            }
+            if (escaped != null) {
+                escaped.append(c);
+            }
+        }
+        return escaped == null ? value : escaped.toString();
     }
 
+    /**
+     * @param like the value to contain, with wildcards
+     */
     public void setLike(String like) {
         this.like = like;
     }
 
+    /**
+     * @param startsWith the prefix
+     */
+    public void setStartsWith(String startsWith) {
+        this.startsWith = startsWith;
+    }
+
+    /**
+     * @param endsWith the suffix
+     */
+    public void setEndsWith(String endsWith) {
+        this.endsWith = endsWith;
+    }
+
+    /**
+     * @param contains the substring
+     */
+    public void setContains(String contains) {
+        this.contains = contains;
+    }
+
+    /**
+     * @param ieq the value to be equal to, ignoring the case
+     */
+    public void setIeq(String ieq) {
+        this.ieq = ieq;
+    }
+
+    /**
+     * @param istartsWith the prefix, ignoring the case
+     */
+    public void setIstartsWith(String istartsWith) {
+        this.istartsWith = istartsWith;
+    }
+
     @Override
     public String toString() {
         return "StringCriteriaOperator{" +
                 "like='" + like + '\'' +
+                ", startsWith='" + startsWith + '\'' +
+                ", endsWith='" + endsWith + '\'' +
+                ", contains='" + contains + '\'' +
+                ", ieq='" + ieq + '\'' +
+                ", istartsWith='" + istartsWith + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,45 @@
+package md.adrian.crop.operator;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Criteria Operator for full-text search on a {@code String} type, rendered by the {@link TextSearchDialect}
+ * of the service, so the full-text index of the database serves it instead of a scan as for {@code like}.
+ * Operators:
+ *  query - the searched text, in the syntax of the full-text engine
+ */
+public class TextSearchCriteriaOperator implements ParameterizedCriteriaOperator<String> {
+
+    private String query;
+
+    @Override
+    public void bind(CriteriaOperatorParameters parameters) {
+        if (query != null) {
+            parameters.bind("query", query);
+        }
+    }
+
+    @Override
+    public Predicate match(CriteriaBuilder criteriaBuilder, Expression<String> expression, CriteriaOperatorParameters parameters) {
+        if (query == null) {
+            return null;
+        }
+        return parameters.textSearchDialect().match(criteriaBuilder, expression, parameters.parameter("query", String.class));
+    }
+
+    /**
+     * @param query the searched text
+     */
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    @Override
+    public String toString() {
+        return "TextSearchCriteriaOperator{" +
+                "query='" + query + '\'' +
+                '}';
+    }
+}
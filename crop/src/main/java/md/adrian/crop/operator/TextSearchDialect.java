@@ -0,0 +1,45 @@
+package md.adrian.crop.operator;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Renders a full-text search predicate with the full-text engine of the database,
+ * which JPA doesn't standardize.
+ * It is configured once per {@code CriteriaOperatorService} and used by all its {@link TextSearchCriteriaOperator}s.
+ */
+@FunctionalInterface
+public interface TextSearchDialect {
+
+    /**
+     * Checks that the persistence provider supports the dialect, when the service is created.
+     *
+     * @param criteriaBuilder the criteria builder of the persistence provider
+     * @throws CriteriaOperatorException if the dialect is not supported
+     */
+    default void check(CriteriaBuilder criteriaBuilder) {
+    }
+
+    /**
+     * Creates the predicate that matches the document with the query.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param document the searched expression, usually a text attribute
+     * @param query the expression of the searched text
+     * @return the predicate
+     */
+    Predicate match(CriteriaBuilder criteriaBuilder, Expression<String> document, Expression<String> query);
+
+    /**
+     * The PostgreSQL full-text search, {@code to_tsvector(configuration, document) @@ plainto_tsquery(configuration, query)}.
+     * Hibernate only {@see HibernatePostgresTextSearchDialect}.
+     *
+     * @param configuration the text search configuration, e.g. {@code english}
+     * @return the dialect
+     */
+    static TextSearchDialect hibernatePostgres(String configuration) {
+        return new HibernatePostgresTextSearchDialect(configuration);
+    }
+}
@@ -0,0 +1,63 @@
+package md.adrian.crop.service;
+
+import md.adrian.crop.operator.CriteriaOperator;
+import md.adrian.crop.operator.ParameterizedCriteriaOperator;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.function.Function;
+
+/**
+ * Links a criteria operator field of the search object to an expression reachable from the query root.
+ *
+ * @param <SEARCH> the type containing criteria operator fields
+ * @param <T> the type of the expression
+ */
+final class AttributeCriteriaOperatorMatch<SEARCH, T> implements CriteriaOperatorMatch<SEARCH> {
+
+    private final Function<SEARCH, ? extends CriteriaOperator<T>> criteriaOperatorFunction;
+    private final Function<CriteriaOperatorQueryContext, ? extends Expression<T>> expressionFunction;
+
+    AttributeCriteriaOperatorMatch(
+            Function<SEARCH, ? extends CriteriaOperator<T>> criteriaOperatorFunction,
+            Function<CriteriaOperatorQueryContext, ? extends Expression<T>> expressionFunction
+    ) {
+        this.criteriaOperatorFunction = criteriaOperatorFunction;
+        this.expressionFunction = expressionFunction;
+    }
+
+    @Override
+    public boolean normalize(SEARCH searchRequest, NormalizedOperators normalized) {
+        return !(criteriaOperatorFunction.apply(searchRequest) instanceof ParameterizedCriteriaOperator<T> parameterized)
+                || normalized.normalize(parameterized);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Operators that are not parameterized keep their values in the predicate, so the query is marked as not cacheable.
+     */
+    @Override
+    public void bind(SEARCH searchRequest, CriteriaOperatorQueryParameters parameters) {
+        CriteriaOperator<T> criteriaOperator = parameters.normalized(criteriaOperatorFunction.apply(searchRequest));
+        if (criteriaOperator instanceof ParameterizedCriteriaOperator<T> parameterized) {
+            parameterized.bind(parameters);
+        } else if (criteriaOperator != null) {
+            parameters.markNotCacheable();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The expression, and therefore any join, is not touched if the search object doesn't have the criteria operator set.
+     */
+    @Override
+    public Predicate apply(SEARCH searchRequest, CriteriaOperatorQueryContext context, CriteriaOperatorQueryParameters parameters) {
+        CriteriaOperator<T> criteriaOperator = parameters.normalized(criteriaOperatorFunction.apply(searchRequest));
+        if (criteriaOperator instanceof ParameterizedCriteriaOperator<T> parameterized) {
+            return parameterized.match(context.getCriteriaBuilder(), expressionFunction.apply(context), parameters);
+        } else if (criteriaOperator != null) {
+            return criteriaOperator.match(context.getCriteriaBuilder(), expressionFunction.apply(context));
+        }
+        return null;
+    }
+}
@@ -2,10 +2,13 @@ package md.adrian.crop.service;
 
 import md.adrian.crop.operator.CriteriaOperator;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.ListAttribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.function.BiFunction;
@@ -18,13 +21,66 @@ import java.util.function.Function;
  */
 public abstract class BaseCriteriaOperatorBuilder<ROOT, SEARCH> {
 
+    /**
+     * The predicates added by subclasses through {@link #addRootPredicateSupplier(BiFunction)},
+     * each of them is applied as a match of the root as well.
+     *
+     * @deprecated subclasses should match criteria operators through {@link #match(SingularAttribute, Function)}
+     */
+    @Deprecated
     protected final List<BiFunction<CriteriaBuilder, Root<?>, Predicate>> rootPredicates = new LinkedList<>();
+
+    /**
+     * The search object the query is built for, null for the templates and the joins,
+     * whose matches are given the search object when the query is built.
+     */
     protected final SEARCH searchRequest;
 
+    private List<CriteriaOperatorMatch<SEARCH>> matches;
+    private boolean sharedMatches;
+
+    /**
+     * Creates the builder, the search object is given to the matches when the query is built.
+     */
+    protected BaseCriteriaOperatorBuilder() {
+        this.matches = new ArrayList<>();
+        this.searchRequest = null;
+    }
+
+    /**
+     * Creates the builder for the search object.
+     *
+     * @param searchRequest the search object
+     */
     protected BaseCriteriaOperatorBuilder(SEARCH searchRequest) {
+        this.matches = new ArrayList<>();
         this.searchRequest = searchRequest;
     }
 
+    /**
+     * Starts from matches shared with other builders, those are copied only if this builder adds its own.
+     *
+     * @param searchRequest the search object
+     * @param sharedMatches the immutable matches
+     */
+    BaseCriteriaOperatorBuilder(SEARCH searchRequest, List<CriteriaOperatorMatch<SEARCH>> sharedMatches) {
+        this.matches = sharedMatches;
+        this.sharedMatches = true;
+        this.searchRequest = searchRequest;
+    }
+
+    /**
+     * Starts from the matches of another builder, copied unless those are shared.
+     *
+     * @param other the builder
+     */
+    BaseCriteriaOperatorBuilder(BaseCriteriaOperatorBuilder<ROOT, SEARCH> other) {
+        this.matches = other.sharedMatches ? other.matches : new ArrayList<>(other.matches);
+        this.sharedMatches = other.sharedMatches;
+        this.searchRequest = other.searchRequest;
+        this.rootPredicates.addAll(other.rootPredicates);
+    }
+
     /**
      * Matches the attribute with the criteria operator field.
      *
@@ -37,15 +93,139 @@ public abstract class BaseCriteriaOperatorBuilder<ROOT, SEARCH> {
         SingularAttribute<ROOT, SEARCH_FIELD> attribute, Function<SEARCH, ? extends CriteriaOperator<SEARCH_FIELD>> criteriaOperatorFunction
     );
 
+    /**
+     * Adds a predicate created from the query root, applied along with the matches.
+     * The query of a builder with such predicates is not cached, as they may hold values outside of parameters.
+     *
+     * @param rootPredicateSupplier the function creating the predicate
+     * @deprecated subclasses should match criteria operators through {@link #match(SingularAttribute, Function)}
+     */
+    @Deprecated
     protected void addRootPredicateSupplier(BiFunction<CriteriaBuilder, Root<?>, Predicate> rootPredicateSupplier) {
         rootPredicates.add(rootPredicateSupplier);
+        addMatch(new RootPredicateCriteriaOperatorMatch<>(rootPredicateSupplier));
     }
 
+    /**
+     * Creates the predicates added through {@link #addRootPredicateSupplier(BiFunction)}.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param root the query root
+     * @return the predicates
+     * @deprecated the predicates are created by the builders of the library when the query is built
+     */
+    @Deprecated
     protected Predicate[] getRootPredicates(CriteriaBuilder criteriaBuilder, Root<?> root) {
         return rootPredicates.stream().map(f -> f.apply(criteriaBuilder, root)).toArray(Predicate[]::new);
     }
 
+    /**
+     * Adds the predicates added to the other builder through {@link #addRootPredicateSupplier(BiFunction)}.
+     *
+     * @param other the other builder
+     * @deprecated joins add their matches to the parent builder on {@link JoinCriteriaOperatorBuilder#endJoin()}
+     */
+    @Deprecated
     protected void addAllRootPredicateSupplier(BaseCriteriaOperatorBuilder<?, ?> other) {
-        rootPredicates.addAll(other.rootPredicates);
+        other.rootPredicates.forEach(this::addRootPredicateSupplier);
+    }
+
+    /**
+     * Matches an attribute of the root with the criteria operator field.
+     */
+    @SuppressWarnings("unchecked")
+    <SEARCH_FIELD> void addRootMatch(
+        SingularAttribute<ROOT, SEARCH_FIELD> attribute,
+        Function<SEARCH, ? extends CriteriaOperator<SEARCH_FIELD>> search
+    ) {
+        addMatch(new AttributeCriteriaOperatorMatch<>(search, context -> ((Root<ROOT>) context.getRoot()).get(attribute)));
+    }
+
+    /**
+     * Starts an inner join of a to-one association of the root, joined only if one of its matches results in a predicate.
+     */
+    @SuppressWarnings("unchecked")
+    static <ROOT, SEARCH, JOIN, PARENT extends BaseCriteriaOperatorBuilder<ROOT, SEARCH>>
+    JoinCriteriaOperatorBuilder<JOIN, SEARCH, ROOT, PARENT> startJoin(PARENT parent, SingularAttribute<ROOT, JOIN> joinAttribute) {
+        return new JoinCriteriaOperatorBuilder<>(
+            parent,
+            context -> context.join((Root<ROOT>) context.getRoot(), joinAttribute, JoinType.INNER)
+        );
+    }
+
+    /**
+     * Starts a join of a collection of the root with the given strategy.
+     */
+    static <ROOT, SEARCH, JOIN, PARENT extends BaseCriteriaOperatorBuilder<ROOT, SEARCH>>
+    JoinCriteriaOperatorBuilder<JOIN, SEARCH, ROOT, PARENT> startJoin(
+        PARENT parent,
+        ListAttribute<ROOT, JOIN> joinAttribute,
+        JoinStrategy joinStrategy
+    ) {
+        return new JoinCriteriaOperatorBuilder<>(parent, joinAttribute, joinStrategy);
+    }
+
+    void addMatch(CriteriaOperatorMatch<SEARCH> match) {
+        if (sharedMatches) {
+            matches = new ArrayList<>(matches);
+            sharedMatches = false;
+        }
+        matches.add(match);
+    }
+
+    void addAllMatches(BaseCriteriaOperatorBuilder<?, SEARCH> other) {
+        other.matches.forEach(this::addMatch);
+    }
+
+    void addExistsMatch(BaseCriteriaOperatorBuilder<?, SEARCH> other) {
+        addMatch(new ExistsCriteriaOperatorMatch<>(other.matches));
+    }
+
+    List<CriteriaOperatorMatch<SEARCH>> getMatches() {
+        return matches;
+    }
+
+    boolean hasSharedMatches() {
+        return sharedMatches;
+    }
+
+    /**
+     * Normalizes the criteria operators of all the matches, which are combined with {@code and},
+     * so the query has no results if any of them can't be satisfied.
+     *
+     * @param searchRequest the search object
+     * @param normalized the normalized operators of the execution
+     * @return false if the query has no results
+     */
+    boolean normalize(SEARCH searchRequest, NormalizedOperators normalized) {
+        boolean satisfiable = true;
+        for (CriteriaOperatorMatch<SEARCH> match : matches) {
+            satisfiable &= match.normalize(searchRequest, normalized);
+        }
+        return satisfiable;
+    }
+
+    void bindParameters(SEARCH searchRequest, CriteriaOperatorQueryParameters parameters) {
+        for (int i = 0; i < matches.size(); i++) {
+            parameters.startMatch(i);
+            matches.get(i).bind(searchRequest, parameters);
+        }
+    }
+
+    Predicate[] getRootPredicates(
+            SEARCH searchRequest,
+            CriteriaOperatorQueryContext context,
+            CriteriaOperatorQueryParameters parameters
+    ) {
+        parameters.startBuild(context.getCriteriaBuilder());
+        List<Predicate> predicates = new ArrayList<>(matches.size());
+        for (int i = 0; i < matches.size(); i++) {
+            parameters.startMatch(i);
+            Predicate predicate = matches.get(i).apply(searchRequest, context, parameters);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        return predicates.toArray(Predicate[]::new);
     }
 }
@@ -0,0 +1,20 @@
+package md.adrian.crop.service;
+
+/**
+ * A point-in-time snapshot of a cache usage.
+ *
+ * @param hitCount the number of lookups that found an entry
+ * @param missCount the number of lookups that had to create an entry
+ * @param evictionCount the number of entries removed to respect the maximum size
+ * @param size the current number of entries
+ */
+public record CacheStatistics(long hitCount, long missCount, long evictionCount, int size) {
+
+    /**
+     * @return the ratio of hits to all lookups, or 0 when there were no lookups
+     */
+    public double hitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
@@ -0,0 +1,59 @@
+package md.adrian.crop.service;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Iterator;
+
+/**
+ * Clears the persistence context every {@code clearInterval} entities, before the next one is loaded,
+ * and once the iteration is closed, so the persistence context holds at most {@code clearInterval} entities
+ * of the iteration along with their associations. Pending changes are flushed first when a transaction is active.
+ *
+ * @param <T> the entity type
+ */
+class ClearingIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final EntityManager entityManager;
+    private final Iterator<T> iterator;
+    private final int clearInterval;
+    private long rows;
+
+    ClearingIterator(EntityManager entityManager, Iterator<T> iterator, int clearInterval) {
+        this.entityManager = entityManager;
+        this.iterator = iterator;
+        this.clearInterval = clearInterval;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (rows > 0 && rows % clearInterval == 0) {
+            clear();
+        }
+        T next = iterator.next();
+        rows++;
+        return next;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() {
+        if (rows > 0) {
+            clear();
+        }
+    }
+
+    private void clear() {
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+        entityManager.clear();
+    }
+}
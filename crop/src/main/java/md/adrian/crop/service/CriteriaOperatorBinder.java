@@ -0,0 +1,238 @@
+package md.adrian.crop.service;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import md.adrian.crop.operator.CriteriaOperator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Binds request parameters, such as {@code birthdate.gte=2010-01-11&nickname.like=Ba}, to a search object.
+ * The search object properties and the operator setters are resolved once per search type into method handles,
+ * along with the parser of each operator value type, so binding a request doesn't use reflection.
+ * Operators are created only for the properties that have parameters, parameters of other names are ignored.
+ * List values, such as {@code in} and {@code btw}, are given as repeated parameters or separated by comma.
+ * It is thread-safe, meant to be created once per search type.
+ *
+ * @param <SEARCH> the type containing criteria operator fields
+ */
+public final class CriteriaOperatorBinder<SEARCH> {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandle constructor;
+    private final int propertyCount;
+    private final Map<String, OperatorBinding> bindings;
+
+    private CriteriaOperatorBinder(MethodHandle constructor, int propertyCount, Map<String, OperatorBinding> bindings) {
+        this.constructor = constructor;
+        this.propertyCount = propertyCount;
+        this.bindings = bindings;
+    }
+
+    /**
+     * Resolves the criteria operator properties of the search type, those having a public setter,
+     * and the setters of each operator type.
+     *
+     * @param searchType the class containing criteria operator fields, with a public no-argument constructor
+     * @return the binder
+     * @param <SEARCH> the type containing criteria operator fields
+     */
+    public static <SEARCH> CriteriaOperatorBinder<SEARCH> of(Class<SEARCH> searchType) {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Map<String, OperatorBinding> bindings = new HashMap<>();
+        int propertyCount = 0;
+        for (Method setter : searchType.getMethods()) {
+            if (!isSetter(setter) || !CriteriaOperator.class.isAssignableFrom(setter.getParameterTypes()[0])) {
+                continue;
+            }
+            String propertyName = toPropertyName(setter);
+            Class<?> operatorType = setter.getParameterTypes()[0];
+            PropertyBinding property = new PropertyBinding(
+                propertyCount++,
+                findGetter(lookup, searchType, setter),
+                toSetterHandle(lookup, setter),
+                findConstructor(lookup, operatorType)
+            );
+            Map<TypeVariable<?>, Type> typeArguments = resolveTypeArguments(operatorType);
+            for (Method operatorSetter : operatorType.getMethods()) {
+                if (isSetter(operatorSetter)) {
+                    bindings.put(
+                        propertyName + '.' + toPropertyName(operatorSetter),
+                        toOperatorBinding(lookup, property, operatorSetter, typeArguments)
+                    );
+                }
+            }
+        }
+        return new CriteriaOperatorBinder<>(findConstructor(lookup, searchType), propertyCount, Map.copyOf(bindings));
+    }
+
+    /**
+     * Creates the search object and sets the operators given by the parameters.
+     *
+     * @param parameters the parameters by name, e.g. {@code jakarta.servlet.ServletRequest#getParameterMap()}
+     * @return the search object
+     */
+    @SuppressWarnings("unchecked")
+    public SEARCH bind(Map<String, String[]> parameters) {
+        try {
+            SEARCH search = (SEARCH) (Object) constructor.invokeExact();
+            Object[] operators = new Object[propertyCount];
+            for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+                OperatorBinding binding = bindings.get(parameter.getKey());
+                if (binding == null) {
+                    continue;
+                }
+                Object value = binding.parse(parameter.getValue());
+                if (value != null) {
+                    binding.setter.invokeExact(binding.property.getOperator(search, operators), value);
+                }
+            }
+            return search;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CriteriaOperatorException("can't bind " + e.getMessage());
+        }
+    }
+
+    private static boolean isSetter(Method method) {
+        return method.getName().length() > 3
+            && method.getName().startsWith("set")
+            && method.getParameterCount() == 1
+            && !method.isBridge()
+            && !Modifier.isStatic(method.getModifiers());
+    }
+
+    private static String toPropertyName(Method setter) {
+        String name = setter.getName().substring(3);
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static MethodHandle findGetter(MethodHandles.Lookup lookup, Class<?> type, Method setter) {
+        try {
+            Method getter = type.getMethod("get" + setter.getName().substring(3));
+            return getter.getReturnType() == setter.getParameterTypes()[0] ? lookup.unreflect(getter).asType(GETTER_TYPE) : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            throw new CriteriaOperatorException("can't access " + e.getMessage());
+        }
+    }
+
+    private static MethodHandle toSetterHandle(MethodHandles.Lookup lookup, Method setter) {
+        try {
+            return lookup.unreflect(setter).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new CriteriaOperatorException("can't access " + e.getMessage());
+        }
+    }
+
+    private static MethodHandle findConstructor(MethodHandles.Lookup lookup, Class<?> type) {
+        try {
+            return lookup.findConstructor(type, MethodType.methodType(void.class)).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new CriteriaOperatorException(type.getName() + " must have a public no-argument constructor");
+        }
+    }
+
+    private static OperatorBinding toOperatorBinding(
+        MethodHandles.Lookup lookup,
+        PropertyBinding property,
+        Method setter,
+        Map<TypeVariable<?>, Type> typeArguments
+    ) {
+        Type valueType = setter.getGenericParameterTypes()[0];
+        boolean list = false;
+        if (valueType instanceof ParameterizedType parameterized && parameterized.getRawType() == List.class) {
+            list = true;
+            valueType = parameterized.getActualTypeArguments()[0];
+        }
+        Type resolved = valueType instanceof TypeVariable<?> variable ? typeArguments.get(variable) : valueType;
+        if (!(resolved instanceof Class<?> valueClass)) {
+            throw new CriteriaOperatorException("can't resolve the value type of " + setter);
+        }
+        return new OperatorBinding(property, toSetterHandle(lookup, setter), ValueParser.parser(valueClass), list);
+    }
+
+    /**
+     * Resolves the type variables of the superclasses, e.g. {@code T} of {@code BaseCriteriaOperator}
+     * as {@code BigDecimal} for {@code BigDecimalCriteriaOperator}.
+     */
+    private static Map<TypeVariable<?>, Type> resolveTypeArguments(Class<?> type) {
+        Map<TypeVariable<?>, Type> typeArguments = new HashMap<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            if (current.getGenericSuperclass() instanceof ParameterizedType superclass) {
+                TypeVariable<?>[] variables = ((Class<?>) superclass.getRawType()).getTypeParameters();
+                Type[] arguments = superclass.getActualTypeArguments();
+                for (int i = 0; i < variables.length; i++) {
+                    Type argument = arguments[i];
+                    typeArguments.put(variables[i], argument instanceof TypeVariable<?> ? typeArguments.get(argument) : argument);
+                }
+            }
+        }
+        return typeArguments;
+    }
+
+    /**
+     * A criteria operator property of the search type.
+     */
+    private record PropertyBinding(int index, MethodHandle getter, MethodHandle setter, MethodHandle constructor) {
+
+        /**
+         * Provides the operator of the property, set by the search object itself or created for the first parameter.
+         */
+        Object getOperator(Object search, Object[] operators) throws Throwable {
+            Object operator = operators[index];
+            if (operator == null) {
+                operator = getter == null ? null : (Object) getter.invokeExact(search);
+                if (operator == null) {
+                    operator = (Object) constructor.invokeExact();
+                    setter.invokeExact(search, operator);
+                }
+                operators[index] = operator;
+            }
+            return operator;
+        }
+    }
+
+    /**
+     * An operator setter of a criteria operator property, e.g. {@code birthdate.gte}.
+     */
+    private record OperatorBinding(PropertyBinding property, MethodHandle setter, Function<String, Object> parser, boolean list) {
+
+        Object parse(String[] values) {
+            if (!list) {
+                return values.length == 0 || values[0].isEmpty() ? null : parser.apply(values[0]);
+            }
+            List<Object> parsed = new ArrayList<>();
+            for (String value : values) {
+                int start = 0;
+                while (start <= value.length()) {
+                    int end = value.indexOf(',', start);
+                    if (end < 0) {
+                        end = value.length();
+                    }
+                    if (end > start) {
+                        parsed.add(parser.apply(value.substring(start, end)));
+                    }
+                    start = end + 1;
+                }
+            }
+            return parsed.isEmpty() ? null : parsed;
+        }
+    }
+}
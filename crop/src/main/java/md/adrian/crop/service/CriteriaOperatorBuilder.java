@@ -2,15 +2,42 @@ package md.adrian.crop.service;
 
 import md.adrian.crop.CriteriaOperatorOrder;
 import md.adrian.crop.CriteriaOperatorPage;
+import md.adrian.crop.CriteriaOperatorPageResult;
+import md.adrian.crop.exception.CriteriaOperatorException;
 import md.adrian.crop.operator.CriteriaOperator;
+import md.adrian.crop.operator.InListStrategy;
+import md.adrian.crop.operator.TextSearchDialect;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.EntityType;
 import jakarta.persistence.metamodel.ListAttribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.Objects.requireNonNullElse;
 
@@ -23,23 +50,90 @@ import static java.util.Objects.requireNonNullElse;
  */
 public class CriteriaOperatorBuilder<ROOT, SEARCH> extends BaseCriteriaOperatorBuilder<ROOT, SEARCH> {
 
+    /**
+     * Provider specific query hints, ignored by the providers that don't recognize them.
+     */
+    static final String HIBERNATE_FETCH_SIZE = "org.hibernate.fetchSize";
+    static final String HIBERNATE_READ_ONLY = "org.hibernate.readOnly";
+    static final String ECLIPSELINK_FETCH_SIZE = "eclipselink.jdbc.fetch-size";
+    /**
+     * The maximum number of searches combined into one query, which bounds its size and number of parameters.
+     */
+    static final int BATCH_SIZE = 64;
+
     private final EntityManager entityManager;
     private final Class<ROOT> rootType;
     private final CriteriaOperatorOrder order;
     private final CriteriaOperatorPage page;
+    private final LruCache<String, CriteriaQuery<?>> queryCache;
+    private final CriteriaOperatorResultCache resultCache;
+    private final CriteriaOperatorListener listener;
+    private final TextSearchDialect textSearchDialect;
+    private final InListStrategy inListStrategy;
+    private final SortPathResolver sortPathResolver;
+    private final Set<String> sortable;
+    private final List<List<SingularAttribute<?, ?>>> fetches = new ArrayList<>();
+    private final List<ListAttribute<ROOT, ?>> collectionFetches = new ArrayList<>();
 
     CriteriaOperatorBuilder(
-            EntityManager entityManager,
+            CriteriaOperatorService service,
             Class<ROOT> rootType,
             SEARCH searchRequest,
             CriteriaOperatorOrder order,
             CriteriaOperatorPage page
     ) {
         super(searchRequest);
-        this.entityManager = entityManager;
+        this.entityManager = service.getEntityManager();
         this.rootType = rootType;
         this.order = order;
         this.page = page;
+        this.queryCache = null;
+        this.resultCache = null;
+        this.listener = service.getListener();
+        this.textSearchDialect = service.getTextSearchDialect();
+        this.inListStrategy = service.getInListStrategy();
+        this.sortPathResolver = service.getSortPathResolver();
+        this.sortable = null;
+    }
+
+    CriteriaOperatorBuilder(
+            CriteriaOperatorTemplate<ROOT, SEARCH> template,
+            SEARCH searchRequest,
+            CriteriaOperatorOrder order,
+            CriteriaOperatorPage page
+    ) {
+        super(searchRequest, template.getMatches());
+        this.entityManager = template.getEntityManager();
+        this.rootType = template.getRootType();
+        this.order = order;
+        this.page = page;
+        this.queryCache = template.getQueryCache();
+        this.resultCache = template.getResultCache();
+        this.listener = template.getListener();
+        this.textSearchDialect = template.getTextSearchDialect();
+        this.inListStrategy = template.getInListStrategy();
+        this.sortPathResolver = template.getSortPathResolver();
+        this.sortable = template.getSortable();
+    }
+
+    /**
+     * Copies the builder to execute it with another entity manager.
+     */
+    private CriteriaOperatorBuilder(CriteriaOperatorBuilder<ROOT, SEARCH> other, EntityManager entityManager) {
+        super(other);
+        this.entityManager = entityManager;
+        this.rootType = other.rootType;
+        this.order = other.order;
+        this.page = other.page;
+        this.queryCache = other.queryCache;
+        this.resultCache = other.resultCache;
+        this.listener = other.listener;
+        this.textSearchDialect = other.textSearchDialect;
+        this.inListStrategy = other.inListStrategy;
+        this.sortPathResolver = other.sortPathResolver;
+        this.sortable = other.sortable;
+        this.fetches.addAll(other.fetches);
+        this.collectionFetches.addAll(other.collectionFetches);
     }
 
     @Override
@@ -47,66 +141,164 @@ public class CriteriaOperatorBuilder<ROOT, SEARCH> extends BaseCriteriaOperatorB
         SingularAttribute<ROOT, SEARCH_FIELD> attribute,
         Function<SEARCH, ? extends CriteriaOperator<SEARCH_FIELD>> search
     ) {
-        CriteriaOperator<SEARCH_FIELD> criteriaOperator = search.apply(searchRequest);
-        if (criteriaOperator != null) {
-            addRootPredicateSupplier((cb, r) -> {
-                Root<ROOT> typedRoot = (Root<ROOT>) r;
-                return criteriaOperator.match(cb, typedRoot.get(attribute));
-            });
-        }
+        addRootMatch(attribute, search);
         return this;
     }
 
+    /**
+     * Join with a {@code SingularAttribute}, for example in a many-to-one relation.
+     *
+     * @param joinAttribute the attribute that is doing the join
+     * @return the builder
+     * @param <JOIN> the joined type
+     */
     public <JOIN> JoinCriteriaOperatorBuilder<JOIN, SEARCH, ROOT, CriteriaOperatorBuilder<ROOT, SEARCH>> join(
         SingularAttribute<ROOT, JOIN> joinAttribute
     ) {
-        return new JoinCriteriaOperatorBuilder<>(
-            searchRequest,
-            this,
-            r -> r.get(joinAttribute)
-        );
+        return startJoin(this, joinAttribute);
     }
 
     /**
-     * Join with a {@code ListAttribute}.
+     * Join with a {@code ListAttribute}, the matches are grouped into an {@code exists} subquery.
      * For example, in a one-to-many relation.
+     * Earlier versions joined the collection to the root instead, use {@link JoinStrategy#JOIN} to keep doing so.
      *
      * @param joinAttribute the attribute that is doing the join
      * @return the builder
+     * @param <JOIN> the joined type
      */
     public <JOIN> JoinCriteriaOperatorBuilder<JOIN, SEARCH, ROOT, CriteriaOperatorBuilder<ROOT, SEARCH>> join(
         ListAttribute<ROOT, JOIN> joinAttribute
     ) {
-        return new JoinCriteriaOperatorBuilder<>(
-                searchRequest,
-                this,
-                r -> r.join(joinAttribute)
-        );
+        return join(joinAttribute, JoinStrategy.EXISTS);
+    }
+
+    /**
+     * Join with a {@code ListAttribute} using the given strategy.
+     *
+     * @param joinAttribute the attribute that is doing the join
+     * @param joinStrategy the join strategy
+     * @return the builder
+     * @param <JOIN> the joined type
+     */
+    public <JOIN> JoinCriteriaOperatorBuilder<JOIN, SEARCH, ROOT, CriteriaOperatorBuilder<ROOT, SEARCH>> join(
+        ListAttribute<ROOT, JOIN> joinAttribute,
+        JoinStrategy joinStrategy
+    ) {
+        return startJoin(this, joinAttribute, joinStrategy);
+    }
+
+    /**
+     * Fetches a to-one association together with the entities, with a left join.
+     * The join is shared with the sorts on the same association, the matches filter through an inner join of their own.
+     * Applies to the queries that select entities, not to projections and counts.
+     *
+     * @param attribute the association attribute
+     * @return the builder
+     */
+    public CriteriaOperatorBuilder<ROOT, SEARCH> fetch(SingularAttribute<ROOT, ?> attribute) {
+        fetches.add(List.of(attribute));
+        return this;
+    }
+
+    /**
+     * Fetches a to-one association of a to-one association together with the entities {@see #fetch(SingularAttribute)}.
+     *
+     * @param attribute the association attribute
+     * @param nestedAttribute the association attribute of the association
+     * @return the builder
+     * @param <JOIN> the association type
+     */
+    public <JOIN> CriteriaOperatorBuilder<ROOT, SEARCH> fetch(
+        SingularAttribute<ROOT, JOIN> attribute,
+        SingularAttribute<JOIN, ?> nestedAttribute
+    ) {
+        fetches.add(List.of(attribute, nestedAttribute));
+        return this;
+    }
+
+    /**
+     * Loads a collection of the fetched entities with one additional query per collection,
+     * selecting the entities of the result list by id. Unlike a fetch join, the page is still limited by the database
+     * and not in memory, and the rows of the page are not multiplied by the collection size.
+     * Applies to {@see #getResultList()} and {@see #getPage()}.
+     *
+     * @param attribute the collection attribute
+     * @return the builder
+     */
+    public CriteriaOperatorBuilder<ROOT, SEARCH> fetch(ListAttribute<ROOT, ?> attribute) {
+        collectionFetches.add(attribute);
+        return this;
     }
 
     /**
      * Builds the query with all matched criteria operators as predicates if any.
      * Adds order by if it was provided on creation.
      * Adds max result and the offset to the query if page was provided on creation.
+     * For a keyset page, the offset is replaced by a predicate that seeks past the row the cursor was created from.
+     * A paged query is always ordered by the id last, so that rows with equal sort values have a stable order,
+     * and with the null values of optional sort attributes last, in both directions, so a keyset page can seek past them,
+     * unless it joins a collection, whose distinct rows can only be ordered by selected attributes.
+     * The values of the criteria operators are bound as query parameters.
      *
      * @return the query
      */
     public TypedQuery<ROOT> getQuery() {
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ROOT> criteriaQuery = criteriaBuilder.createQuery(rootType);
-        Root<ROOT> root = criteriaQuery.from(rootType);
+        return getQuery(normalize()).query();
+    }
+
+    private PreparedQuery<ROOT> getQuery(NormalizedOperators normalized) {
+        return getQuery(normalized, null, getFetchShape(), rootType, context -> {
+            fetches.forEach(path -> context.fetch(context.getRoot(), path));
+            return context.getRoot();
+        });
+    }
+
+    /**
+     * Builds the query {@see CriteriaOperatorBuilder#getQuery()} with the projection as the selection.
+     * The results are not managed by the persistence context.
+     *
+     * @param projection the projection
+     * @return the query
+     * @param <R> the result type
+     */
+    public <R> TypedQuery<R> getQuery(CriteriaOperatorProjection<ROOT, R> projection) {
+        return getQuery(normalize(), projection).query();
+    }
 
-        criteriaQuery.where(getRootPredicates(criteriaBuilder, root));
-        criteriaQuery.orderBy(createOrderBy(criteriaBuilder, root));
+    private <R> PreparedQuery<R> getQuery(NormalizedOperators normalized, CriteriaOperatorProjection<ROOT, R> projection) {
+        return getQuery(normalized, projection, projection.getShape(), projection.getResultType(), projection::toSelection);
+    }
 
-        TypedQuery<ROOT> query = entityManager.createQuery(criteriaQuery);
+    /**
+     * @param projection the projection, or null if the query selects the entities
+     */
+    private <R> PreparedQuery<R> getQuery(
+            NormalizedOperators normalized,
+            CriteriaOperatorProjection<ROOT, R> projection,
+            String selectionShape,
+            Class<R> resultType,
+            Function<CriteriaOperatorQueryContext, Selection<?>> selection
+    ) {
+        CriteriaOperatorQueryParameters parameters = bindParameters(normalized);
+        if (isKeysetPage()) {
+            bindKeyset(parameters);
+        }
+        CriteriaQuery<R> criteriaQuery = getCachedQuery(
+                "list|" + selectionShape,
+                parameters,
+                () -> createCriteriaQuery(projection, resultType, selection, parameters)
+        );
 
-        if (page != null && page.getSize() != null) {
-            var offset = requireNonNullElse(page.getOffset(), 0);
-            query = query.setFirstResult(offset);
-            query = query.setMaxResults(page.getSize());
+        PreparedQuery<R> prepared = prepare(criteriaQuery, parameters);
+        if (isPaged()) {
+            if (!isKeysetPage()) {
+                var offset = requireNonNullElse(page.getOffset(), 0);
+                prepared.query().setFirstResult(offset);
+            }
+            prepared.query().setMaxResults(page.getSize());
         }
-        return query;
+        return prepared;
     }
 
     /**
@@ -115,50 +307,858 @@ public class CriteriaOperatorBuilder<ROOT, SEARCH> extends BaseCriteriaOperatorB
      * @return list of entities
      */
     public List<ROOT> getResultList() {
-        return getQuery().getResultList();
+        return getResultList(normalize());
+    }
+
+    private List<ROOT> getResultList(NormalizedOperators normalized) {
+        if (!normalized.isSatisfiable()) {
+            return new ArrayList<>();
+        }
+        List<ROOT> entities = execute("list", () -> getQuery(normalized), TypedQuery::getResultList, List::size);
+        fetchCollections(entities);
+        return entities;
+    }
+
+    /**
+     * Executes the matches for each of the search objects {@see CriteriaOperatorTemplate#getResultLists}.
+     * The search object of the builder is not used.
+     *
+     * @param searchRequests the search objects
+     * @return the entities of each search object
+     */
+    List<List<ROOT>> getResultLists(List<SEARCH> searchRequests) {
+        List<List<ROOT>> results = new ArrayList<>(searchRequests.size());
+        List<Integer> batch = new ArrayList<>(BATCH_SIZE);
+        NormalizedOperators normalized = new NormalizedOperators();
+        for (int i = 0; i < searchRequests.size(); i++) {
+            results.add(new ArrayList<>());
+            if (normalize(searchRequests.get(i), normalized)) {
+                batch.add(i);
+            }
+            if (batch.size() == BATCH_SIZE) {
+                executeBatch(searchRequests, batch, normalized, results);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            executeBatch(searchRequests, batch, normalized, results);
+        }
+        return results;
+    }
+
+    /**
+     * Executes one query for the batch of searches, and assigns each entity to the searches whose flag it is selected with.
+     */
+    @SuppressWarnings("unchecked")
+    private void executeBatch(
+            List<SEARCH> searchRequests,
+            List<Integer> batch,
+            NormalizedOperators normalized,
+            List<List<ROOT>> results
+    ) {
+        List<SEARCH> searches = batch.stream().map(searchRequests::get).toList();
+        CriteriaOperatorQueryParameters parameters = new CriteriaOperatorQueryParameters(textSearchDialect, inListStrategy, normalized);
+        for (int i = 0; i < searches.size(); i++) {
+            parameters.startSearch(i);
+            bindParameters(searches.get(i), parameters);
+        }
+        List<Tuple> rows = execute("batch", () -> getBatchQuery(searches, parameters), TypedQuery::getResultList, List::size);
+        for (Tuple row : rows) {
+            ROOT entity = (ROOT) row.get(0);
+            for (int i = 0; i < batch.size(); i++) {
+                if (Boolean.TRUE.equals(row.get(i + 1))) {
+                    results.get(batch.get(i)).add(entity);
+                }
+            }
+        }
+    }
+
+    private PreparedQuery<Tuple> getBatchQuery(List<SEARCH> searches, CriteriaOperatorQueryParameters parameters) {
+        CriteriaQuery<Tuple> criteriaQuery = getCachedQuery(
+                "batch|" + searches.size(),
+                parameters,
+                () -> createBatchCriteriaQuery(searches, parameters)
+        );
+        return prepare(criteriaQuery, parameters);
+    }
+
+    /**
+     * Creates the query {@code select e, case when p0 then true else false end, ... where p0 or p1 ...}
+     * with the predicates of each search, the associations are joined with left joins, shared by all the searches.
+     *
+     * @throws CriteriaOperatorException if a search joins a collection, which would select the entities more than once
+     */
+    private CriteriaQuery<Tuple> createBatchCriteriaQuery(List<SEARCH> searches, CriteriaOperatorQueryParameters parameters) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<ROOT> root = criteriaQuery.from(rootType);
+
+        var context = new CriteriaOperatorQueryContext(criteriaBuilder, criteriaQuery, root, true);
+        List<Selection<?>> selections = new ArrayList<>(searches.size() + 1);
+        selections.add(root);
+        Predicate[] alternatives = new Predicate[searches.size()];
+        for (int i = 0; i < searches.size(); i++) {
+            parameters.startSearch(i);
+            alternatives[i] = criteriaBuilder.and(getRootPredicates(searches.get(i), context, parameters));
+            selections.add(criteriaBuilder.selectCase().when(alternatives[i], true).otherwise(false));
+        }
+        if (context.isCollectionJoined()) {
+            throw new CriteriaOperatorException("batch searches can't join collections, use exists instead");
+        }
+        criteriaQuery.multiselect(selections);
+        criteriaQuery.where(criteriaBuilder.or(alternatives));
+        criteriaQuery.orderBy(createOrderBy(context));
+        return criteriaQuery;
+    }
+
+    /**
+     * Checks that the query of a joined collection, which selects distinct rows, is ordered by selected attributes only,
+     * the root attributes and those of the fetched associations, or those of the projection.
+     * Databases reject ordering distinct rows by other columns, as a row may then have several sort values.
+     *
+     * @throws CriteriaOperatorException if an attribute of the order is not selected
+     */
+    private void checkDistinctOrder(CriteriaOperatorProjection<ROOT, ?> projection) {
+        for (String sortAttribute : getSortOrder()) {
+            String attributeName = toAttributeName(sortAttribute);
+            if (projection == null ? !isEntitySelected(attributeName) : !projection.selects(attributeName)) {
+                throw new CriteriaOperatorException(
+                        "can't order by " + attributeName + ", it's not selected by the distinct query of a joined collection, use exists instead");
+            }
+        }
+    }
+
+    private boolean isEntitySelected(String attributeName) {
+        int separator = attributeName.lastIndexOf('.');
+        if (separator < 0) {
+            return true;
+        }
+        String associationPath = attributeName.substring(0, separator);
+        for (List<SingularAttribute<?, ?>> path : fetches) {
+            String fetchPath = path.stream().map(SingularAttribute::getName).collect(Collectors.joining("."));
+            if (fetchPath.equals(associationPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getFetchShape() {
+        StringBuilder shape = new StringBuilder("entity");
+        for (List<SingularAttribute<?, ?>> path : fetches) {
+            shape.append(',');
+            path.forEach(attribute -> shape.append(attribute.getName()).append('.'));
+        }
+        return shape.toString();
+    }
+
+    private void fetchCollections(List<ROOT> entities) {
+        if (collectionFetches.isEmpty() || entities.isEmpty()) {
+            return;
+        }
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Object> ids = entities.stream().map(persistenceUnitUtil::getIdentifier).toList();
+        SingularAttribute<? super ROOT, ?> idAttribute = getIdAttribute();
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        for (ListAttribute<ROOT, ?> collectionFetch : collectionFetches) {
+            CriteriaQuery<ROOT> fetchQuery = criteriaBuilder.createQuery(rootType);
+            Root<ROOT> root = fetchQuery.from(rootType);
+            root.fetch(collectionFetch, JoinType.LEFT);
+            fetchQuery.select(root).distinct(true).where(root.get(idAttribute).in(ids));
+            entityManager.createQuery(fetchQuery).getResultList();
+        }
+    }
+
+    /**
+     * Builds the query {@see CriteriaOperatorBuilder#getQuery(CriteriaOperatorProjection)} and executes it.
+     *
+     * @param projection the projection
+     * @return list of projected results
+     * @param <R> the result type
+     */
+    public <R> List<R> getResultList(CriteriaOperatorProjection<ROOT, R> projection) {
+        return getResultList(normalize(), projection);
+    }
+
+    private <R> List<R> getResultList(NormalizedOperators normalized, CriteriaOperatorProjection<ROOT, R> projection) {
+        if (!normalized.isSatisfiable()) {
+            return new ArrayList<>();
+        }
+        return getCachedResult(
+                normalized,
+                "list|" + projection.getShape(),
+                true,
+                () -> execute("list", () -> getQuery(normalized, projection), TypedQuery::getResultList, List::size),
+                List::size,
+                ArrayList::new
+        );
+    }
+
+    /**
+     * Builds the query {@see CriteriaOperatorBuilder#getQuery()} and executes it as a forward-only stream,
+     * clearing the persistence context once per fetch size {@see CriteriaOperatorBuilder#getResultStream(int, int)}.
+     *
+     * @param fetchSize the number of rows fetched from the database at once
+     * @return stream of entities
+     */
+    public Stream<ROOT> getResultStream(int fetchSize) {
+        return getResultStream(fetchSize, fetchSize);
+    }
+
+    /**
+     * Builds the query {@see CriteriaOperatorBuilder#getQuery()} and executes it as a forward-only stream.
+     * The rows are fetched from the database in batches of fetch size, and the persistence context is cleared
+     * every clear interval entities and once the stream is closed, detaching the entities along with their
+     * associations, so the memory use doesn't depend on the number of results.
+     * Pending changes are flushed before, if a transaction is active, but the entities loaded before the stream
+     * are detached as well, so the stream suits a persistence context of its own, e.g. an export.
+     * The entities are loaded read-only, changes to them are not flushed.
+     * The stream must be closed, e.g. with try-with-resources, to release the underlying cursor,
+     * the query is reported to the listener when it is closed, with the rows read until then.
+     *
+     * @param fetchSize the number of rows fetched from the database at once
+     * @param clearInterval the number of entities after which the persistence context is cleared
+     * @return stream of entities
+     */
+    public Stream<ROOT> getResultStream(int fetchSize, int clearInterval) {
+        if (clearInterval < 1) {
+            throw new CriteriaOperatorException("clear interval must be positive");
+        }
+        NormalizedOperators normalized = normalize();
+        if (!normalized.isSatisfiable()) {
+            return Stream.empty();
+        }
+        long start = System.nanoTime();
+        PreparedQuery<ROOT> prepared = getQuery(normalized);
+        TypedQuery<ROOT> query = prepared.query()
+                .setHint(HIBERNATE_FETCH_SIZE, fetchSize)
+                .setHint(ECLIPSELINK_FETCH_SIZE, fetchSize)
+                .setHint(HIBERNATE_READ_ONLY, true);
+        long built = System.nanoTime();
+        Stream<ROOT> resultStream = query.getResultStream();
+        var iterator = new ClearingIterator<>(entityManager, resultStream.iterator(), clearInterval);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(resultStream::close)
+                .onClose(iterator::close)
+                .onClose(() -> report("stream", prepared, built - start, System.nanoTime() - built, iterator.getRows()));
+    }
+
+    /**
+     * Streams the entities {@see CriteriaOperatorBuilder#getResultStream(int)} into the action,
+     * the stream is closed when done.
+     *
+     * @param fetchSize the number of rows fetched from the database at once
+     * @param action the action invoked for each entity
+     */
+    public void forEach(int fetchSize, Consumer<? super ROOT> action) {
+        try (Stream<ROOT> resultStream = getResultStream(fetchSize)) {
+            resultStream.forEach(action);
+        }
+    }
+
+    /**
+     * Executes the query {@see CriteriaOperatorBuilder#getQuery()} and provides the total count along with it.
+     * The count query is skipped when the total follows from the page itself,
+     * i.e. an offset page that is not full and is either the first one or not empty.
+     *
+     * @return the page with the total count
+     */
+    public CriteriaOperatorPageResult<ROOT> getPage() {
+        NormalizedOperators normalized = normalize();
+        return toPage(getResultList(normalized), () -> getCount(normalized));
+    }
+
+    /**
+     * Executes the query {@see CriteriaOperatorBuilder#getQuery(CriteriaOperatorProjection)}
+     * and provides the total count along with it {@see CriteriaOperatorBuilder#getPage()}.
+     *
+     * @param projection the projection
+     * @return the page of projected results with the total count
+     * @param <R> the result type
+     */
+    public <R> CriteriaOperatorPageResult<R> getPage(CriteriaOperatorProjection<ROOT, R> projection) {
+        NormalizedOperators normalized = normalize();
+        return toPage(getResultList(normalized, projection), () -> getCount(normalized));
+    }
+
+    private <R> CriteriaOperatorPageResult<R> toPage(List<R> content, LongSupplier count) {
+        if (!isPaged()) {
+            return new CriteriaOperatorPageResult<>(content, content.size());
+        }
+        int offset = requireNonNullElse(page.getOffset(), 0);
+        boolean full = content.size() >= page.getSize();
+        if (!isKeysetPage() && !full && (offset == 0 || !content.isEmpty())) {
+            return new CriteriaOperatorPageResult<>(content, (long) offset + content.size());
+        }
+        return new CriteriaOperatorPageResult<>(content, count.getAsLong());
     }
 
+    /**
+     * Executes the query {@see CriteriaOperatorBuilder#getResultList()} asynchronously.
+     * The task runs with its own entity manager, created from the factory of the builder entity manager
+     * and closed once the task ends, so the returned entities are detached:
+     * associations used afterward have to be fetched {@see CriteriaOperatorBuilder#fetch(SingularAttribute)}.
+     * The task only blocks on the database, which suits an executor of virtual threads.
+     *
+     * @param executor the executor running the task
+     * @return the future list of results
+     */
+    public CompletableFuture<List<ROOT>> getResultListAsync(Executor executor) {
+        return supplyAsync(CriteriaOperatorBuilder::getResultList, normalize(), executor);
+    }
+
+    /**
+     * Executes the query {@see CriteriaOperatorBuilder#getResultList(CriteriaOperatorProjection)} asynchronously
+     * {@see CriteriaOperatorBuilder#getResultListAsync(Executor)}.
+     *
+     * @param projection the projection
+     * @param executor the executor running the task
+     * @return the future list of projected results
+     * @param <R> the result type
+     */
+    public <R> CompletableFuture<List<R>> getResultListAsync(CriteriaOperatorProjection<ROOT, R> projection, Executor executor) {
+        return supplyAsync((builder, normalized) -> builder.getResultList(normalized, projection), normalize(), executor);
+    }
+
+    /**
+     * Executes the count query {@see CriteriaOperatorBuilder#getCount()} asynchronously
+     * {@see CriteriaOperatorBuilder#getResultListAsync(Executor)}.
+     *
+     * @param executor the executor running the task
+     * @return the future count of entities
+     */
+    public CompletableFuture<Long> getCountAsync(Executor executor) {
+        return supplyAsync(CriteriaOperatorBuilder::getCount, normalize(), executor);
+    }
+
+    /**
+     * Executes the query and the count query of a page concurrently {@see CriteriaOperatorBuilder#getPage()}.
+     * Unlike the synchronous page, the count query of a paged search is not skipped,
+     * as it runs before the content is known.
+     *
+     * @param executor the executor running the tasks
+     * @return the future page with the total count
+     */
+    public CompletableFuture<CriteriaOperatorPageResult<ROOT>> getPageAsync(Executor executor) {
+        NormalizedOperators normalized = normalize();
+        return toPageAsync(supplyAsync(CriteriaOperatorBuilder::getResultList, normalized, executor), normalized, executor);
+    }
+
+    /**
+     * Executes the query of a projection and the count query concurrently {@see CriteriaOperatorBuilder#getPageAsync(Executor)}.
+     *
+     * @param projection the projection
+     * @param executor the executor running the tasks
+     * @return the future page of projected results with the total count
+     * @param <R> the result type
+     */
+    public <R> CompletableFuture<CriteriaOperatorPageResult<R>> getPageAsync(
+            CriteriaOperatorProjection<ROOT, R> projection,
+            Executor executor
+    ) {
+        NormalizedOperators normalized = normalize();
+        return toPageAsync(
+                supplyAsync((builder, operators) -> builder.getResultList(operators, projection), normalized, executor),
+                normalized,
+                executor
+        );
+    }
+
+    private <R> CompletableFuture<CriteriaOperatorPageResult<R>> toPageAsync(
+            CompletableFuture<List<R>> content,
+            NormalizedOperators normalized,
+            Executor executor
+    ) {
+        if (!isPaged()) {
+            return content.thenApply(list -> toPage(list, list::size));
+        }
+        CompletableFuture<Long> count = supplyAsync(CriteriaOperatorBuilder::getCount, normalized, executor);
+        return content.thenCombine(count, (list, total) -> toPage(list, () -> total));
+    }
+
+    /**
+     * Copies the builder on the calling thread, so it can be changed or used meanwhile,
+     * and executes the copy on the executor with a short-lived entity manager.
+     * The operators are normalized on the calling thread as well, so the tasks only read them.
+     */
+    private <R> CompletableFuture<R> supplyAsync(
+            BiFunction<CriteriaOperatorBuilder<ROOT, SEARCH>, NormalizedOperators, R> execution,
+            NormalizedOperators normalized,
+            Executor executor
+    ) {
+        EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
+        CriteriaOperatorBuilder<ROOT, SEARCH> snapshot = new CriteriaOperatorBuilder<>(this, entityManager);
+        return CompletableFuture.supplyAsync(() -> {
+            try (EntityManager taskEntityManager = entityManagerFactory.createEntityManager()) {
+                return execution.apply(new CriteriaOperatorBuilder<>(snapshot, taskEntityManager), normalized);
+            }
+        }, executor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> CriteriaQuery<R> createCriteriaQuery(
+            CriteriaOperatorProjection<ROOT, R> projection,
+            Class<R> resultType,
+            Function<CriteriaOperatorQueryContext, Selection<?>> selection,
+            CriteriaOperatorQueryParameters parameters
+    ) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> criteriaQuery = criteriaBuilder.createQuery(resultType);
+        Root<ROOT> root = criteriaQuery.from(rootType);
+
+        var context = new CriteriaOperatorQueryContext(criteriaBuilder, criteriaQuery, root);
+        criteriaQuery.select((Selection<? extends R>) selection.apply(context));
+        Predicate[] predicates = getRootPredicates(searchRequest, context, parameters);
+        if (context.isCollectionJoined()) {
+            checkDistinctOrder(projection);
+            criteriaQuery.distinct(true);
+        }
+        if (isKeysetPage()) {
+            predicates = Arrays.copyOf(predicates, predicates.length + 1);
+            predicates[predicates.length - 1] = createKeysetPredicate(context, parameters);
+        }
+        criteriaQuery.where(predicates);
+        criteriaQuery.orderBy(createOrderBy(context));
+        return criteriaQuery;
+    }
 
     /**
      * Builds count query with all matched criteria operators as predicates if any.
+     * Joins are created only for the matches that result in a predicate, so to-one joins
+     * that don't filter are not part of the count query.
      *
      * @return count query
      */
-    private TypedQuery<Long> getCountQuery() {
+    private PreparedQuery<Long> getCountQuery(NormalizedOperators normalized) {
+        CriteriaOperatorQueryParameters parameters = bindParameters(normalized);
+        return prepare(getCountCriteriaQuery(parameters), parameters);
+    }
+
+    private CriteriaQuery<Long> getCountCriteriaQuery(CriteriaOperatorQueryParameters parameters) {
+        return getCachedQuery("count", parameters, () -> createCountCriteriaQuery(parameters));
+    }
+
+    private CriteriaQuery<Long> createCountCriteriaQuery(CriteriaOperatorQueryParameters parameters) {
         CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
         Root<ROOT> countRoot = countQuery.from(rootType);
-        countQuery.select(criteriaBuilder.count(countRoot));
 
-        Predicate[] predicates = getRootPredicates(criteriaBuilder, countRoot);
+        var context = new CriteriaOperatorQueryContext(criteriaBuilder, countQuery, countRoot);
+        Predicate[] predicates = getRootPredicates(searchRequest, context, parameters);
+        countQuery.select(context.isCollectionJoined() ? criteriaBuilder.countDistinct(countRoot) : criteriaBuilder.count(countRoot));
 
         countQuery.where(predicates);
-        return entityManager.createQuery(countQuery);
+        return countQuery;
     }
 
     /**
-     * Builds the count query {@see CriteriaOperatorBuilder#getCountQuery()} and executes it.
+     * Builds the count query {@see CriteriaOperatorBuilder#getCountQuery(NormalizedOperators)} and executes it.
      *
      * @return count of entities
      */
     public Long getCount() {
-        return getCountQuery().getSingleResult();
+        return getCount(normalize());
+    }
+
+    private Long getCount(NormalizedOperators normalized) {
+        if (!normalized.isSatisfiable()) {
+            return 0L;
+        }
+        return getCachedResult(
+                normalized,
+                "count",
+                false,
+                () -> execute("count", () -> getCountQuery(normalized), TypedQuery::getSingleResult, Long::longValue),
+                count -> 1,
+                UnaryOperator.identity()
+        );
+    }
+
+    /**
+     * Counts the matching entities up to the limit, useful when only "limit or more" is shown.
+     * Reads at most {@code limit} rows instead of counting all the matching rows,
+     * so the database can stop as soon as the limit is reached.
+     * JPA can't limit a subquery, so this is not a single {@code count(*)}: up to {@code limit} rows are streamed
+     * and counted as they arrive, a constant per row, or the id when a collection join requires distinct rows.
+     * The cost, in the database and on the network, grows linearly with the limit, so the limit is meant to be small,
+     * e.g. a thousand, the size of a few pages; beyond that {@link #getCount()} is cheaper.
+     *
+     * @param limit the maximum count
+     * @return count of entities, equal to the limit if there are as many or more
+     */
+    public long getCount(int limit) {
+        if (limit < 1) {
+            throw new CriteriaOperatorException("count limit must be positive");
+        }
+        NormalizedOperators normalized = normalize();
+        if (!normalized.isSatisfiable()) {
+            return 0;
+        }
+        return execute(
+                "capped",
+                () -> getCappedCountQuery(normalized, limit),
+                query -> {
+                    try (Stream<Object> rows = query.getResultStream()) {
+                        return rows.count();
+                    }
+                },
+                Long::longValue
+        );
+    }
+
+    private PreparedQuery<Object> getCappedCountQuery(NormalizedOperators normalized, int limit) {
+        CriteriaOperatorQueryParameters parameters = bindParameters(normalized);
+        CriteriaQuery<Object> cappedQuery = getCachedQuery("capped", parameters, () -> createCappedCountCriteriaQuery(parameters));
+
+        PreparedQuery<Object> prepared = prepare(cappedQuery, parameters);
+        prepared.query().setMaxResults(limit);
+        return prepared;
+    }
+
+    private CriteriaQuery<Object> createCappedCountCriteriaQuery(CriteriaOperatorQueryParameters parameters) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> cappedQuery = criteriaBuilder.createQuery();
+        Root<ROOT> root = cappedQuery.from(rootType);
+
+        var context = new CriteriaOperatorQueryContext(criteriaBuilder, cappedQuery, root);
+        Predicate[] predicates = getRootPredicates(searchRequest, context, parameters);
+        if (context.isCollectionJoined()) {
+            SingularAttribute<? super ROOT, ?> idAttribute = getIdAttribute();
+            cappedQuery.select(idAttribute == null ? root : root.get(idAttribute)).distinct(true);
+        } else {
+            cappedQuery.select(criteriaBuilder.literal(1));
+        }
+
+        cappedQuery.where(predicates);
+        return cappedQuery;
+    }
+
+    /**
+     * Provides the estimated count of all entities when the search doesn't filter,
+     * otherwise, or if there is no estimate, executes the count query {@see CriteriaOperatorBuilder#getCount()}.
+     *
+     * @param estimator the source of the estimate, e.g. {@link CriteriaOperatorCountEstimator#postgres()}
+     * @return the estimated or the exact count of entities
+     */
+    public long getCount(CriteriaOperatorCountEstimator estimator) {
+        NormalizedOperators normalized = normalize();
+        if (!normalized.isSatisfiable()) {
+            return 0;
+        }
+        CriteriaOperatorQueryParameters parameters = bindParameters(normalized);
+        CriteriaQuery<Long> countQuery = getCountCriteriaQuery(parameters);
+        if (countQuery.getRestriction() == null) {
+            OptionalLong estimate = estimator.estimate(entityManager, rootType);
+            if (estimate.isPresent()) {
+                return estimate.getAsLong();
+            }
+        }
+        return execute("count", () -> prepare(countQuery, parameters), TypedQuery::getSingleResult, Long::longValue);
+    }
+
+    /**
+     * Normalizes the criteria operators of the search object {@see ParameterizedCriteriaOperator#normalized()}
+     * once per execution, so the queries are executed only if the operators can be satisfied.
+     * The search object is left unchanged, the normalized operators are bound in place of its operators.
+     *
+     * @return the normalized operators
+     */
+    private NormalizedOperators normalize() {
+        NormalizedOperators normalized = new NormalizedOperators();
+        if (!normalize(searchRequest, normalized)) {
+            normalized.markUnsatisfiable();
+        }
+        return normalized;
     }
 
-    private List<Order> createOrderBy(CriteriaBuilder criteriaBuilder, Root<ROOT> root) {
-        if (order == null || order.getOrder() == null) {
-            return List.of();
+    private CriteriaOperatorQueryParameters bindParameters(NormalizedOperators normalized) {
+        CriteriaOperatorQueryParameters parameters = new CriteriaOperatorQueryParameters(textSearchDialect, inListStrategy, normalized);
+        bindParameters(searchRequest, parameters);
+        return parameters;
+    }
+
+    /**
+     * Reuses the criteria query built earlier for the same shape: the same set operators, order and page presence.
+     * Only builders that use the template matches as they are share the template cache.
+     * A cached criteria query is shared by the threads and the entity managers that execute the template,
+     * which is safe as it is fully built before it is cached and never changed afterward:
+     * the values are bound to each typed query created from it, never to the criteria query itself,
+     * and the entity managers only read it, all of them from the factory whose criteria builder created it.
+     */
+    @SuppressWarnings("unchecked")
+    private <Q extends CriteriaQuery<?>> Q getCachedQuery(String kind, CriteriaOperatorQueryParameters parameters, Supplier<Q> queryFactory) {
+        if (queryCache == null || !hasSharedMatches() || !parameters.isCacheable()) {
+            return queryFactory.get();
         }
-        return order.getOrder()
-            .stream()
-            .map(order -> toOrder(criteriaBuilder, root, order))
-            .toList();
+        String shape = kind + '|' + parameters.getShape() + '|' + String.join(",", getSortOrder()) + '|' + isPaged();
+        return (Q) queryCache.computeIfAbsent(shape, key -> queryFactory.get());
+    }
+
+    /**
+     * Creates the typed query from the criteria query and binds the values of the parameters to it.
+     */
+    private <T> PreparedQuery<T> prepare(CriteriaQuery<T> criteriaQuery, CriteriaOperatorQueryParameters parameters) {
+        TypedQuery<T> query = entityManager.createQuery(criteriaQuery);
+        parameters.bindTo(query);
+        return new PreparedQuery<>(query, criteriaQuery, parameters.getShape());
     }
 
-    private Order toOrder(CriteriaBuilder criteriaBuilder, Root<ROOT> root, String order) {
-        if (order.startsWith("-")) {
-            return criteriaBuilder.desc(root.get(order.substring(1)));
+    /**
+     * Provides the result from the result cache of the template, if there is one, otherwise executes the query.
+     * Only builders that use the template matches as they are share the template results.
+     * The cached result is shared, so each caller gets a copy of it.
+     */
+    private <R> R getCachedResult(
+            NormalizedOperators normalized,
+            String kind,
+            boolean ordered,
+            Supplier<R> query,
+            ToIntFunction<R> rows,
+            UnaryOperator<R> copy
+    ) {
+        if (resultCache == null || !hasSharedMatches()) {
+            return query.get();
+        }
+        CriteriaOperatorQueryParameters parameters = bindParameters(normalized);
+        StringBuilder shape = new StringBuilder(kind).append('|').append(parameters.getShape());
+        if (ordered) {
+            if (isKeysetPage()) {
+                bindKeyset(parameters);
+            }
+            shape.append('|').append(String.join(",", getSortOrder()));
+            if (isPaged()) {
+                shape.append('|').append(page.getSize()).append('|').append(page.getOffset());
+            }
+        }
+        var key = new CriteriaOperatorResultCache.Key(getMatches(), rootType, shape.toString(), parameters.getValues());
+        return copy.apply(resultCache.get(key, entityManager.getMetamodel(), query, rows));
+    }
+
+    /**
+     * Builds and executes the query, timing both for the listener if there is one.
+     */
+    private <T, R> R execute(
+            String kind,
+            Supplier<PreparedQuery<T>> queryFactory,
+            Function<TypedQuery<T>, R> execution,
+            ToLongFunction<R> rows
+    ) {
+        if (listener == null) {
+            return execution.apply(queryFactory.get().query());
+        }
+        long start = System.nanoTime();
+        PreparedQuery<T> prepared = queryFactory.get();
+        long built = System.nanoTime();
+        R result = execution.apply(prepared.query());
+        long executed = System.nanoTime();
+        report(kind, prepared, built - start, executed - built, rows.applyAsLong(result));
+        return result;
+    }
+
+    private void report(String kind, PreparedQuery<?> prepared, long buildNanos, long executionNanos, long rows) {
+        if (listener == null) {
+            return;
+        }
+        listener.onQuery(new CriteriaOperatorQueryEvent(
+                kind,
+                rootType,
+                prepared.shape(),
+                countJoins(prepared.criteriaQuery()),
+                Duration.ofNanos(buildNanos),
+                Duration.ofNanos(executionNanos),
+                rows,
+                page == null ? null : page.getSize(),
+                page == null ? null : page.getOffset()
+        ));
+    }
+
+    /**
+     * A typed query with the criteria query it was created from and the shape of its parameters,
+     * which are reported to the listener.
+     */
+    private record PreparedQuery<T>(TypedQuery<T> query, CriteriaQuery<?> criteriaQuery, String shape) {
+    }
+
+    private static int countJoins(CriteriaQuery<?> criteriaQuery) {
+        int joins = 0;
+        for (Root<?> root : criteriaQuery.getRoots()) {
+            joins += countJoins(root) + countFetches(root);
+        }
+        return joins;
+    }
+
+    private static int countJoins(From<?, ?> from) {
+        int joins = 0;
+        for (Join<?, ?> join : from.getJoins()) {
+            joins += 1 + countJoins(join);
+        }
+        return joins;
+    }
+
+    private static int countFetches(FetchParent<?, ?> fetchParent) {
+        int fetches = 0;
+        for (Fetch<?, ?> fetch : fetchParent.getFetches()) {
+            fetches += 1 + countFetches(fetch);
+        }
+        return fetches;
+    }
+
+    private boolean isPaged() {
+        return page != null && page.getSize() != null;
+    }
+
+    private boolean isKeysetPage() {
+        return isPaged() && page.getAfter() != null;
+    }
+
+    /**
+     * Creates the cursor of a keyset page from the last entity of the previous page.
+     * The cursor holds the values of all sort attributes and of the id, it is meant to be passed back as is.
+     *
+     * @param last the last entity of the page
+     * @return the cursor
+     * @throws CriteriaOperatorException if the sort attributes can't be read or their type can't be parsed back
+     */
+    public String getCursor(ROOT last) {
+        List<String> values = new ArrayList<>();
+        for (SortPath sortPath : getSortPaths()) {
+            Class<?> type = sortPath.getJavaType();
+            if (!ValueParser.supports(type)) {
+                throw new CriteriaOperatorException("keyset page does not support sort values of type " + type.getName());
+            }
+            Object value = sortPath.read(last);
+            values.add(value == null ? null : ValueParser.format(value, type));
+        }
+        return KeysetCursor.encode(values);
+    }
+
+    private void bindKeyset(CriteriaOperatorQueryParameters parameters) {
+        List<SortPath> sortPaths = getSortPaths();
+        List<String> values = KeysetCursor.decode(page.getAfter());
+        if (values.size() != sortPaths.size()) {
+            throw new CriteriaOperatorException("cursor does not match the order");
+        }
+        parameters.startKeyset();
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) != null) {
+                parameters.bind("k" + i, ValueParser.parse(values.get(i), sortPaths.get(i).getJavaType()));
+            }
+        }
+    }
+
+    /**
+     * Creates the predicate {@code (a > :k0) or (a = :k0 and b > :k1) or ...} that follows the sort order,
+     * the comparison is reversed for descending attributes.
+     * As the null values are ordered last {@see #createOrderBy(CriteriaOperatorQueryContext)}, the rows with a null value
+     * follow those with any other, {@code (a > :k0 or a is null)}, and none follow a null value, whose rows are only
+     * those equal to it, {@code a is null}. The null values of the cursor bind no parameter, so the query shape differs.
+     *
+     * @throws CriteriaOperatorException if the cursor has null values and the query joins a collection
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate createKeysetPredicate(CriteriaOperatorQueryContext context, CriteriaOperatorQueryParameters parameters) {
+        parameters.startKeyset();
+        CriteriaBuilder criteriaBuilder = context.getCriteriaBuilder();
+        List<String> sortOrder = getSortOrder();
+        List<SortPath> sortPaths = getSortPaths();
+        List<String> values = KeysetCursor.decode(page.getAfter());
+        boolean nullsLast = !context.isCollectionJoined();
+        List<Predicate> alternatives = new ArrayList<>(sortOrder.size());
+        List<Predicate> equalities = new ArrayList<>(sortOrder.size());
+        for (int i = 0; i < sortOrder.size(); i++) {
+            String sortAttribute = sortOrder.get(i);
+            Path path = sortPaths.get(i).toPath(context, context.getRoot());
+            if (values.get(i) == null) {
+                if (!nullsLast) {
+                    throw new CriteriaOperatorException("keyset page of a joined collection does not support null sort values");
+                }
+                equalities.add(criteriaBuilder.isNull(path));
+                continue;
+            }
+            Expression value = parameters.parameter("k" + i, path.getJavaType());
+
+            List<Predicate> alternative = new ArrayList<>(equalities);
+            Predicate after = sortAttribute.startsWith("-")
+                    ? criteriaBuilder.lessThan(path, value)
+                    : criteriaBuilder.greaterThan(path, value);
+            alternative.add(nullsLast && sortPaths.get(i).isOptional() ? criteriaBuilder.or(after, criteriaBuilder.isNull(path)) : after);
+            alternatives.add(criteriaBuilder.and(alternative.toArray(Predicate[]::new)));
+            equalities.add(criteriaBuilder.equal(path, value));
+        }
+        return criteriaBuilder.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Provides the requested order, with the id appended for paged queries if it's not there already.
+     */
+    private List<String> getSortOrder() {
+        List<String> sortOrder = order == null || order.getOrder() == null ? List.of() : order.getOrder();
+        if (!isPaged()) {
+            return sortOrder;
+        }
+        SingularAttribute<? super ROOT, ?> idAttribute = getIdAttribute();
+        if (idAttribute == null) {
+            return sortOrder;
+        }
+        String id = idAttribute.getName();
+        if (sortOrder.contains(id) || sortOrder.contains("-" + id)) {
+            return sortOrder;
+        }
+        List<String> sortOrderWithId = new ArrayList<>(sortOrder);
+        sortOrderWithId.add(id);
+        return sortOrderWithId;
+    }
+
+    private SingularAttribute<? super ROOT, ?> getIdAttribute() {
+        EntityType<ROOT> entityType = entityManager.getMetamodel().entity(rootType);
+        if (!entityType.hasSingleIdAttribute()) {
+            return null;
+        }
+        return entityType.getId(entityType.getIdType().getJavaType());
+    }
+
+    private static String toAttributeName(String order) {
+        return order.startsWith("-") ? order.substring(1) : order;
+    }
+
+    /**
+     * Resolves the sort order against the metamodel {@see SortPathResolver},
+     * the requested attributes are checked against the sortable ones of the template if there are some.
+     *
+     * @throws CriteriaOperatorException if an attribute can't be sorted by or is not sortable
+     */
+    private List<SortPath> getSortPaths() {
+        List<String> sortOrder = getSortOrder();
+        int requested = order == null || order.getOrder() == null ? 0 : order.getOrder().size();
+        List<SortPath> sortPaths = new ArrayList<>(sortOrder.size());
+        for (int i = 0; i < sortOrder.size(); i++) {
+            String name = toAttributeName(sortOrder.get(i));
+            if (sortable != null && i < requested && !sortable.contains(name)) {
+                throw new CriteriaOperatorException("can't sort by " + name + ", it is not sortable");
+            }
+            sortPaths.add(sortPathResolver.resolve(entityManager.getMetamodel(), rootType, name));
+        }
+        return sortPaths;
+    }
+
+    /**
+     * Orders by the sort attributes, the null values of the optional ones last for paged queries
+     * that don't join a collection, with {@code case when a is null then 1 else 0 end}, as the databases
+     * differ in where they order null values.
+     */
+    private List<Order> createOrderBy(CriteriaOperatorQueryContext context) {
+        CriteriaBuilder criteriaBuilder = context.getCriteriaBuilder();
+        List<String> sortOrder = getSortOrder();
+        List<SortPath> sortPaths = getSortPaths();
+        boolean nullsLast = isPaged() && !context.isCollectionJoined();
+        List<Order> orders = new ArrayList<>(sortOrder.size());
+        for (int i = 0; i < sortOrder.size(); i++) {
+            Path<?> path = sortPaths.get(i).toPath(context, context.getRoot());
+            if (nullsLast && sortPaths.get(i).isOptional()) {
+                orders.add(criteriaBuilder.asc(criteriaBuilder.selectCase().when(criteriaBuilder.isNull(path), 1).otherwise(0)));
+            }
+            orders.add(sortOrder.get(i).startsWith("-") ? criteriaBuilder.desc(path) : criteriaBuilder.asc(path));
         }
-        return criteriaBuilder.asc(root.get(order));
+        return orders;
     }
 }
@@ -0,0 +1,64 @@
+package md.adrian.crop.service;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Locale;
+import java.util.OptionalLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Provides an estimate of the number of all entities of a type, for example the row count kept
+ * in the table statistics of the database, which is far cheaper to read than counting the rows.
+ * The estimators of the table statistics of some databases are provided, they read them with a native query,
+ * so they work with any persistence provider. They find the table by the {@code Table} annotation of the entity
+ * or by the entity name, so a table named otherwise, e.g. by a naming strategy, needs an estimator of its own.
+ */
+@FunctionalInterface
+public interface CriteriaOperatorCountEstimator {
+
+    /**
+     * Estimates the number of all entities of the root type.
+     *
+     * @param entityManager the entity manager the count would be executed with
+     * @param rootType the root type
+     * @return the estimate or empty if none is available
+     */
+    OptionalLong estimate(EntityManager entityManager, Class<?> rootType);
+
+    /**
+     * The PostgreSQL estimate, {@code reltuples} of {@code pg_class}, updated by {@code vacuum} and {@code analyze}.
+     * The table is found on the search path.
+     *
+     * @return the estimator
+     */
+    static CriteriaOperatorCountEstimator postgres() {
+        return new TableStatisticsCountEstimator(
+                "select cast(reltuples as bigint) from pg_class where oid = to_regclass(?1)",
+                name -> name.toLowerCase(Locale.ROOT)
+        );
+    }
+
+    /**
+     * The MySQL estimate, {@code table_rows} of {@code information_schema.tables}, of the table in the current database.
+     *
+     * @return the estimator
+     */
+    static CriteriaOperatorCountEstimator mysql() {
+        return new TableStatisticsCountEstimator(
+                "select table_rows from information_schema.tables where table_schema = database() and table_name = ?1",
+                UnaryOperator.identity()
+        );
+    }
+
+    /**
+     * The H2 estimate, {@code row_count_estimate} of {@code information_schema.tables}.
+     *
+     * @return the estimator
+     */
+    static CriteriaOperatorCountEstimator h2() {
+        return new TableStatisticsCountEstimator(
+                "select row_count_estimate from information_schema.tables where table_name = ?1",
+                name -> name.toUpperCase(Locale.ROOT)
+        );
+    }
+}
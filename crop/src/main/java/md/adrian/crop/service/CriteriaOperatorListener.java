@@ -0,0 +1,30 @@
+package md.adrian.crop.service;
+
+/**
+ * Receives the timing of each executed list and count query, for example to log slow queries
+ * {@link CriteriaOperatorSlowQueryLogger} or to record them in a metrics system.
+ * It is called on the thread executing the query, after the execution, so it should return quickly.
+ */
+@FunctionalInterface
+public interface CriteriaOperatorListener {
+
+    /**
+     * Called after a query is executed.
+     *
+     * @param event the query and its timing
+     */
+    void onQuery(CriteriaOperatorQueryEvent event);
+
+    /**
+     * Combines this listener with another one, called after this.
+     *
+     * @param other the other listener
+     * @return the combined listener
+     */
+    default CriteriaOperatorListener andThen(CriteriaOperatorListener other) {
+        return event -> {
+            onQuery(event);
+            other.onQuery(event);
+        };
+    }
+}
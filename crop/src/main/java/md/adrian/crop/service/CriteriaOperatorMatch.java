@@ -0,0 +1,40 @@
+package md.adrian.crop.service;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * A part of the match chain that results in at most one predicate.
+ * It holds no state of a particular request, so it can be shared between builders created from the same template.
+ *
+ * @param <SEARCH> the type containing criteria operator fields
+ */
+interface CriteriaOperatorMatch<SEARCH> {
+
+    /**
+     * Normalizes the criteria operators set in the search object {@see ParameterizedCriteriaOperator#normalized()},
+     * all of them, even once one can't be satisfied.
+     *
+     * @param searchRequest the search object
+     * @param normalized the normalized operators of the execution
+     * @return false if no value can satisfy the operators
+     */
+    boolean normalize(SEARCH searchRequest, NormalizedOperators normalized);
+
+    /**
+     * Registers the values of the normalized criteria operators set in the search object.
+     *
+     * @param searchRequest the search object
+     * @param parameters the query parameters
+     */
+    void bind(SEARCH searchRequest, CriteriaOperatorQueryParameters parameters);
+
+    /**
+     * Creates the predicate for the criteria operators set in the search object.
+     *
+     * @param searchRequest the search object
+     * @param context the query the predicate is created for
+     * @param parameters the query parameters
+     * @return the predicate or null
+     */
+    Predicate apply(SEARCH searchRequest, CriteriaOperatorQueryContext context, CriteriaOperatorQueryParameters parameters);
+}
@@ -0,0 +1,98 @@
+package md.adrian.crop.service;
+
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Describes the attributes selected directly into the constructor of the result type, e.g. a record,
+ * instead of loading the entity. The attributes are passed to the constructor in the order of selection.
+ * Attributes of a to-one association are selected through a left join, so a missing association results in null values,
+ * which is shared with the sorts on the same association, the matches filter through an inner join of their own.
+ * A projection is meant to be declared once and reused by many queries.
+ *
+ * @param <ROOT> the root type
+ * @param <R> the result type
+ */
+public class CriteriaOperatorProjection<ROOT, R> {
+
+    private final Class<R> resultType;
+    private final List<Function<CriteriaOperatorQueryContext, Selection<?>>> selections = new ArrayList<>();
+    private final List<String> attributeNames = new ArrayList<>();
+
+    private CriteriaOperatorProjection(Class<R> resultType) {
+        this.resultType = resultType;
+    }
+
+    /**
+     * Creates an empty projection.
+     *
+     * @param rootType the entity class
+     * @param resultType the class whose constructor receives the selected attributes
+     * @return the projection
+     * @param <ROOT> the root type
+     * @param <R> the result type
+     */
+    public static <ROOT, R> CriteriaOperatorProjection<ROOT, R> of(Class<ROOT> rootType, Class<R> resultType) {
+        return new CriteriaOperatorProjection<>(resultType);
+    }
+
+    /**
+     * Selects an attribute of the root.
+     *
+     * @param attribute the attribute
+     * @return the projection
+     */
+    @SuppressWarnings("unchecked")
+    public CriteriaOperatorProjection<ROOT, R> select(SingularAttribute<ROOT, ?> attribute) {
+        selections.add(context -> ((Root<ROOT>) context.getRoot()).get(attribute));
+        attributeNames.add(attribute.getName());
+        return this;
+    }
+
+    /**
+     * Selects an attribute of a to-one association of the root.
+     *
+     * @param joinAttribute the association attribute
+     * @param attribute the attribute of the association
+     * @return the projection
+     * @param <JOIN> the association type
+     */
+    @SuppressWarnings("unchecked")
+    public <JOIN> CriteriaOperatorProjection<ROOT, R> select(SingularAttribute<ROOT, JOIN> joinAttribute, SingularAttribute<JOIN, ?> attribute) {
+        selections.add(context -> context.join((Root<ROOT>) context.getRoot(), joinAttribute, JoinType.LEFT).get(attribute));
+        attributeNames.add(joinAttribute.getName() + "." + attribute.getName());
+        return this;
+    }
+
+    Class<R> getResultType() {
+        return resultType;
+    }
+
+    /**
+     * @param attributeName the attribute name, dotted for the attributes of a to-one association
+     * @return true if the attribute is selected
+     */
+    boolean selects(String attributeName) {
+        return attributeNames.contains(attributeName);
+    }
+
+    /**
+     * Identifies the projection within the query shape.
+     */
+    String getShape() {
+        return resultType.getName() + attributeNames;
+    }
+
+    Selection<R> toSelection(CriteriaOperatorQueryContext context) {
+        Selection<?>[] selected = selections.stream()
+                .map(selection -> selection.apply(context))
+                .toArray(Selection<?>[]::new);
+        return context.getCriteriaBuilder().construct(resultType, selected);
+    }
+}
@@ -0,0 +1,129 @@
+package md.adrian.crop.service;
+
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.FetchParent;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.ListAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The query, or subquery, that criteria operator matches are applied to.
+ * Joins are created through the context, which memoizes them by association and join type, so each association
+ * is joined once per query and join type no matter how many matches, selections or nested joins navigate through it.
+ * An inner join of a match doesn't reuse a left join of a fetch, a projection or a sort, as it filters the rows.
+ */
+class CriteriaOperatorQueryContext {
+
+    private final CriteriaBuilder criteriaBuilder;
+    private final AbstractQuery<?> query;
+    private final Root<?> root;
+    private final boolean outerJoins;
+    private final Map<From<?, ?>, Map<JoinKey, Join<?, ?>>> joins = new IdentityHashMap<>();
+    private final Map<FetchParent<?, ?>, Map<String, Fetch<?, ?>>> fetches = new IdentityHashMap<>();
+    private boolean collectionJoined;
+
+    CriteriaOperatorQueryContext(CriteriaBuilder criteriaBuilder, AbstractQuery<?> query, Root<?> root) {
+        this(criteriaBuilder, query, root, false);
+    }
+
+    /**
+     * @param outerJoins whether to-one associations are always joined with left joins, for queries that combine
+     *                   alternative searches, where a search that doesn't navigate an association
+     *                   must still find the rows without it
+     */
+    CriteriaOperatorQueryContext(CriteriaBuilder criteriaBuilder, AbstractQuery<?> query, Root<?> root, boolean outerJoins) {
+        this.criteriaBuilder = criteriaBuilder;
+        this.query = query;
+        this.root = root;
+        this.outerJoins = outerJoins;
+    }
+
+    CriteriaBuilder getCriteriaBuilder() {
+        return criteriaBuilder;
+    }
+
+    AbstractQuery<?> getQuery() {
+        return query;
+    }
+
+    Root<?> getRoot() {
+        return root;
+    }
+
+    /**
+     * Joins a to-one association, or reuses the join created earlier for the same association of the same parent
+     * with the same join type.
+     *
+     * @param from the parent
+     * @param attribute the association attribute
+     * @param joinType the join type, left if the context uses outer joins
+     * @return the join
+     */
+    @SuppressWarnings("unchecked")
+    <X, Y> Join<X, Y> join(From<?, X> from, SingularAttribute<? super X, Y> attribute, JoinType joinType) {
+        JoinType type = outerJoins ? JoinType.LEFT : joinType;
+        return (Join<X, Y>) joins.computeIfAbsent(from, key -> new HashMap<>())
+                .computeIfAbsent(new JoinKey(attribute.getName(), type), key -> from.join(attribute, type));
+    }
+
+    /**
+     * Joins a collection, or reuses the join created earlier for the same collection of the same parent.
+     *
+     * @param from the parent
+     * @param attribute the collection attribute
+     * @return the join
+     */
+    @SuppressWarnings("unchecked")
+    <X, Y> Join<X, Y> join(From<?, X> from, ListAttribute<? super X, Y> attribute) {
+        return (Join<X, Y>) joins.computeIfAbsent(from, key -> new HashMap<>())
+                .computeIfAbsent(new JoinKey(attribute.getName(), JoinType.INNER), key -> from.join(attribute));
+    }
+
+    /**
+     * Fetches a chain of to-one associations with left joins, sharing the fetches with other chains of the same prefix.
+     * If the provider represents fetches as joins, which is the case for Hibernate, the fetches are registered as the left joins
+     * of their associations, so the sorts and the selections reuse them instead of joining the same association once more.
+     * For that, fetches have to be created before any match is applied.
+     *
+     * @param from the root of the chain
+     * @param path the association attributes
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void fetch(From<?, ?> from, List<SingularAttribute<?, ?>> path) {
+        FetchParent<?, ?> parent = from;
+        for (SingularAttribute attribute : path) {
+            FetchParent<?, ?> fetchParent = parent;
+            Fetch<?, ?> fetch = fetches.computeIfAbsent(fetchParent, key -> new HashMap<>())
+                    .computeIfAbsent(attribute.getName(), name -> fetchParent.fetch(attribute, JoinType.LEFT));
+            if (fetchParent instanceof From<?, ?> parentFrom && fetch instanceof Join<?, ?> join) {
+                joins.computeIfAbsent(parentFrom, key -> new HashMap<>())
+                        .putIfAbsent(new JoinKey(attribute.getName(), JoinType.LEFT), join);
+            }
+            parent = (FetchParent<?, ?>) fetch;
+        }
+    }
+
+    /**
+     * Marks that the root was joined with a collection, so it may appear more than once in the result.
+     */
+    void markCollectionJoined() {
+        collectionJoined = true;
+    }
+
+    boolean isCollectionJoined() {
+        return collectionJoined;
+    }
+
+    private record JoinKey(String attributeName, JoinType joinType) {
+    }
+}
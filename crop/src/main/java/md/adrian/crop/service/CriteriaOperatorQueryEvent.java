@@ -0,0 +1,37 @@
+package md.adrian.crop.service;
+
+import java.time.Duration;
+
+/**
+ * An executed query reported to {@link CriteriaOperatorListener}.
+ *
+ * @param kind the kind of query: {@code list}, {@code count}, {@code capped}, a count up to a limit, {@code batch}
+ *             or {@code stream}, reported once the stream is closed
+ * @param rootType the root entity
+ * @param shape the parameters of the set operators, prefixed by the match index, e.g. {@code m3_btw0,m3_btw1,}
+ * @param joins the number of joins and fetches of the query, not counting those of the exists subqueries
+ * @param buildTime the time spent to build the query and bind its parameters
+ * @param executionTime the time spent to execute the query and read its results, until closed for a stream
+ * @param rows the number of results, the count itself for the count queries
+ * @param pageSize the page size, null if not paged
+ * @param offset the page offset, null if not set
+ */
+public record CriteriaOperatorQueryEvent(
+    String kind,
+    Class<?> rootType,
+    String shape,
+    int joins,
+    Duration buildTime,
+    Duration executionTime,
+    long rows,
+    Integer pageSize,
+    Integer offset
+) {
+
+    /**
+     * @return the build and the execution time
+     */
+    public Duration totalTime() {
+        return buildTime.plus(executionTime);
+    }
+}
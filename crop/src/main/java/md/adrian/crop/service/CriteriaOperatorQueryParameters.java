@@ -0,0 +1,135 @@
+package md.adrian.crop.service;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import md.adrian.crop.operator.CriteriaOperator;
+import md.adrian.crop.operator.CriteriaOperatorParameters;
+import md.adrian.crop.operator.InListStrategy;
+import md.adrian.crop.operator.TextSearchDialect;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the values of all criteria operators of a query as named parameters.
+ * The parameter names are prefixed with the index of the match, and of the search in a batch,
+ * so the names alone identify the query shape.
+ * Lists are padded to the next power of two, which keeps the number of distinct shapes,
+ * and therefore of distinct SQL statements, logarithmic in the list size.
+ */
+class CriteriaOperatorQueryParameters implements CriteriaOperatorParameters {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+    private final StringBuilder shape = new StringBuilder();
+    private final TextSearchDialect textSearchDialect;
+    private final InListStrategy inListStrategy;
+    private final NormalizedOperators normalized;
+    private CriteriaBuilder criteriaBuilder;
+    private String prefix = "";
+    private String searchPrefix = "";
+    private boolean cacheable = true;
+
+    CriteriaOperatorQueryParameters(TextSearchDialect textSearchDialect, InListStrategy inListStrategy, NormalizedOperators normalized) {
+        this.textSearchDialect = textSearchDialect;
+        this.inListStrategy = inListStrategy;
+        this.normalized = normalized;
+    }
+
+    /**
+     * Provides the normalized operator that is bound and matched in place of the one set in the search object.
+     */
+    <T> CriteriaOperator<T> normalized(CriteriaOperator<T> criteriaOperator) {
+        return normalized.get(criteriaOperator);
+    }
+
+    void startSearch(int index) {
+        searchPrefix = "s" + index + "_";
+    }
+
+    void startMatch(int index) {
+        prefix = searchPrefix + "m" + index + "_";
+    }
+
+    String getPrefix() {
+        return prefix;
+    }
+
+    void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    void startKeyset() {
+        prefix = "keyset_";
+    }
+
+    void startBuild(CriteriaBuilder criteriaBuilder) {
+        this.criteriaBuilder = criteriaBuilder;
+    }
+
+    /**
+     * Marks the query as one that has values outside of parameters, so it can't be reused for other values.
+     */
+    void markNotCacheable() {
+        cacheable = false;
+    }
+
+    boolean isCacheable() {
+        return cacheable;
+    }
+
+    String getShape() {
+        return shape.toString();
+    }
+
+    @Override
+    public void bind(String name, Object value) {
+        String parameterName = prefix + name;
+        names.add(parameterName);
+        values.add(value);
+        shape.append(parameterName).append(',');
+    }
+
+    @Override
+    public <V> Expression<V> parameter(String name, Class<V> type) {
+        return criteriaBuilder.parameter(type, prefix + name);
+    }
+
+    @Override
+    public int listSize(int size) {
+        return size <= 1 ? size : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    @Override
+    public InListStrategy inListStrategy() {
+        return inListStrategy;
+    }
+
+    @Override
+    public TextSearchDialect textSearchDialect() {
+        if (textSearchDialect == null) {
+            throw new CriteriaOperatorException("no text search dialect configured, see CriteriaOperatorService");
+        }
+        return textSearchDialect;
+    }
+
+    /**
+     * Provides the bound values, arrays as lists, so that equal values result in equal lists.
+     */
+    List<Object> getValues() {
+        List<Object> comparableValues = new ArrayList<>(values.size());
+        for (Object value : values) {
+            comparableValues.add(value instanceof Object[] array ? Arrays.asList(array) : value);
+        }
+        return comparableValues;
+    }
+
+    void bindTo(Query query) {
+        for (int i = 0; i < names.size(); i++) {
+            query.setParameter(names.get(i), values.get(i));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package md.adrian.crop.service;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * A thread-safe cache of search results, the projected lists and the counts, bounded by size and time to live.
+ * An entry is keyed by the template, the root type and the canonical encoding of the search:
+ * the bound values of the normalized operators, the order and the page.
+ * It depends on the root type and on the entity types reachable from it by associations, and it is invalidated
+ * when an entity of those types is persisted, updated or removed, as reported by {@link CriteriaOperatorResultCacheListener}
+ * to the service whose templates use the cache.
+ * Changes made outside of the persistence context, e.g. by bulk or native updates, are seen once the entry expires.
+ * Entities are not cached, since they belong to the persistence context that loaded them.
+ * One cache can be shared by all the templates of a service {@see CriteriaOperatorTemplateBuilder#resultCache}.
+ */
+public class CriteriaOperatorResultCache {
+
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final Map<Key, Entry> entries;
+    private final Map<Class<?>, Set<Key>> keysByType = new HashMap<>();
+    private final Map<Class<?>, Set<Class<?>>> dependencies = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private long rowCount;
+    /**
+     * Incremented on each invalidation, so a result read before it is not cached after it.
+     */
+    private long generation;
+
+    /**
+     * @param maximumSize the maximum number of cached results, the least recently used one is evicted first
+     * @param timeToLive the time after which a cached result expires
+     * @throws CriteriaOperatorException if the size or the time to live is not positive
+     */
+    public CriteriaOperatorResultCache(int maximumSize, Duration timeToLive) {
+        if (maximumSize < 1 || timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new CriteriaOperatorException("result cache size and time to live must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Removes the results that depend on the entity type, or on one of its supertypes.
+     *
+     * @param entityType the type of the changed entity
+     */
+    public void invalidate(Class<?> entityType) {
+        synchronized (entries) {
+            generation++;
+            for (Class<?> type : List.copyOf(keysByType.keySet())) {
+                if (type.isAssignableFrom(entityType)) {
+                    for (Key key : List.copyOf(keysByType.getOrDefault(type, Set.of()))) {
+                        remove(key);
+                        invalidations.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the results.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            invalidations.add(entries.size());
+            entries.clear();
+            keysByType.clear();
+            rowCount = 0;
+        }
+    }
+
+    /**
+     * Provides the usage of the cache, the row count being the measure of its footprint.
+     *
+     * @return the statistics
+     */
+    public ResultCacheStatistics getStatistics() {
+        synchronized (entries) {
+            return new ResultCacheStatistics(
+                hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), invalidations.sum(), entries.size(), rowCount
+            );
+        }
+    }
+
+    /**
+     * Provides the cached result or executes the query and caches its result.
+     * Concurrent misses of the same key may execute the query twice.
+     */
+    <R> R get(Key key, Metamodel metamodel, Supplier<R> query, ToIntFunction<R> rows) {
+        long observedGeneration;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                @SuppressWarnings("unchecked")
+                R value = (R) entry.value;
+                return value;
+            }
+            if (entry != null) {
+                remove(key);
+                expirations.increment();
+            }
+            observedGeneration = generation;
+        }
+        misses.increment();
+        R value = query.get();
+        Set<Class<?>> types = dependencies.computeIfAbsent(key.rootType(), rootType -> getDependencies(metamodel, rootType));
+        synchronized (entries) {
+            if (observedGeneration == generation && !entries.containsKey(key)) {
+                put(key, new Entry(value, rows.applyAsInt(value), types, System.nanoTime() + timeToLiveNanos));
+            }
+        }
+        return value;
+    }
+
+    private void put(Key key, Entry entry) {
+        entries.put(key, entry);
+        rowCount += entry.rows;
+        for (Class<?> type : entry.types) {
+            keysByType.computeIfAbsent(type, t -> new HashSet<>()).add(key);
+        }
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maximumSize) {
+            Map.Entry<Key, Entry> evicted = eldest.next();
+            eldest.remove();
+            unindex(evicted.getKey(), evicted.getValue());
+            evictions.increment();
+        }
+    }
+
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(Key key, Entry entry) {
+        rowCount -= entry.rows;
+        for (Class<?> type : entry.types) {
+            Set<Key> keys = keysByType.get(type);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByType.remove(type);
+            }
+        }
+    }
+
+    /**
+     * Collects the root type and the entity types reachable from it by associations.
+     */
+    private static Set<Class<?>> getDependencies(Metamodel metamodel, Class<?> rootType) {
+        Set<Class<?>> types = new HashSet<>();
+        addDependencies(metamodel, metamodel.entity(rootType), types);
+        return Set.copyOf(types);
+    }
+
+    private static void addDependencies(Metamodel metamodel, ManagedType<?> type, Set<Class<?>> types) {
+        if (type instanceof EntityType<?> && !types.add(type.getJavaType())) {
+            return;
+        }
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            Class<?> target = attribute instanceof PluralAttribute<?, ?, ?> plural
+                ? plural.getElementType().getJavaType()
+                : attribute.getJavaType();
+            if (attribute.isAssociation() || attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+                addDependencies(metamodel, metamodel.managedType(target), types);
+            }
+        }
+    }
+
+    /**
+     * The identity of a search result.
+     *
+     * @param template the matches of the template the search was created from
+     * @param rootType the root type
+     * @param query the kind of the result, the shape of the bound operators, the order and the page
+     * @param values the bound values
+     */
+    record Key(Object template, Class<?> rootType, String query, List<Object> values) {
+    }
+
+    private record Entry(Object value, int rows, Set<Class<?>> types, long expiresAt) {
+    }
+}
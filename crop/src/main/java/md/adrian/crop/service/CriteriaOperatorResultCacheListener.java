@@ -0,0 +1,42 @@
+package md.adrian.crop.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import java.util.function.Supplier;
+
+/**
+ * The entity listener that invalidates the cached results depending on the changed entity type,
+ * in the {@link CriteriaOperatorResultCache}s of the templates of a service.
+ * It is registered on the entities, e.g. with {@code @EntityListeners(CriteriaOperatorResultCacheListener.class)},
+ * or for all of them as a default entity listener in {@code orm.xml}, and the persistence provider obtains its
+ * instance from the bean container, e.g. a Spring bean or a CDI bean, which gives it the service of the
+ * entity manager factory.
+ * The callbacks run when the change is flushed, a result read by another transaction before the commit
+ * may still be cached until it expires.
+ */
+public class CriteriaOperatorResultCacheListener {
+
+    private final Supplier<CriteriaOperatorService> service;
+
+    /**
+     * @param service the supplier of the service, since the listener is usually created with the entity manager
+     *                factory, before the service that depends on it
+     */
+    public CriteriaOperatorResultCacheListener(Supplier<CriteriaOperatorService> service) {
+        this.service = service;
+    }
+
+    /**
+     * Invalidates the results that depend on the type of the entity.
+     *
+     * @param entity the persisted, updated or removed entity
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        service.get().invalidateResultCaches(entity.getClass());
+    }
+}
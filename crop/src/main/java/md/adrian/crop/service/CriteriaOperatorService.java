@@ -2,17 +2,55 @@ package md.adrian.crop.service;
 
 import md.adrian.crop.CriteriaOperatorOrder;
 import md.adrian.crop.CriteriaOperatorPage;
+import md.adrian.crop.exception.CriteriaOperatorException;
+import md.adrian.crop.operator.InListStrategy;
+import md.adrian.crop.operator.TextSearchDialect;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The main API that helps to build the Query using criteria operators.
+ * The options that apply to all the builders and templates of the service are set with {@link #builder(EntityManager)}.
  */
 public class CriteriaOperatorService {
 
     private final EntityManager entityManager;
+    private final CriteriaOperatorListener listener;
+    private final TextSearchDialect textSearchDialect;
+    private final InListStrategy inListStrategy;
+    private final SortPathResolver sortPathResolver = new SortPathResolver(SortPathResolver.DEFAULT_CACHE_SIZE);
+    /**
+     * The result caches of the templates of the service, so those of another entity manager factory are not invalidated.
+     */
+    private final Set<CriteriaOperatorResultCache> resultCaches = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Creates a service with the default options {@see #builder(EntityManager)}.
+     *
+     * @param entityManager the entity manager
+     */
     public CriteriaOperatorService(EntityManager entityManager) {
-        this.entityManager = entityManager;
+        this(builder(entityManager));
+    }
+
+    private CriteriaOperatorService(Builder builder) {
+        this.entityManager = builder.entityManager;
+        this.listener = builder.listener;
+        this.textSearchDialect = builder.textSearchDialect;
+        this.inListStrategy = builder.inListStrategy;
+    }
+
+    /**
+     * Starts the configuration of a service.
+     *
+     * @param entityManager the entity manager
+     * @return the builder of the service
+     */
+    public static Builder builder(EntityManager entityManager) {
+        return new Builder(entityManager);
     }
 
     /**
@@ -32,13 +70,7 @@ public class CriteriaOperatorService {
             CriteriaOperatorOrder order,
             CriteriaOperatorPage page
     ) {
-        return new CriteriaOperatorBuilder<>(
-                entityManager,
-                clazz,
-                searchCriteria,
-                order,
-                page
-        );
+        return new CriteriaOperatorBuilder<>(this, clazz, searchCriteria, order, page);
     }
 
     /**
@@ -54,4 +86,116 @@ public class CriteriaOperatorService {
         return create(clazz, searchCriteria, null, null);
     }
 
+    /**
+     * Creates a builder for a reusable template, usually declared once at startup.
+     *
+     * @param clazz          the entity class
+     * @param searchType     the class containing criteria operator fields, the search objects are checked against it
+     * @param <R>            the result type, same as entity class
+     * @param <SEARCH_TYPE>  the type containing criteria operator fields
+     * @return a template builder
+     */
+    public <R, SEARCH_TYPE> CriteriaOperatorTemplateBuilder<R, SEARCH_TYPE> template(Class<R> clazz, Class<SEARCH_TYPE> searchType) {
+        return new CriteriaOperatorTemplateBuilder<>(this, clazz, searchType);
+    }
+
+    /**
+     * Invalidates the results that depend on the entity type in the result caches of the templates of the service
+     * {@see CriteriaOperatorResultCacheListener}.
+     *
+     * @param entityType the type of the changed entity
+     */
+    public void invalidateResultCaches(Class<?> entityType) {
+        for (CriteriaOperatorResultCache resultCache : resultCaches) {
+            resultCache.invalidate(entityType);
+        }
+    }
+
+    void registerResultCache(CriteriaOperatorResultCache resultCache) {
+        resultCaches.add(resultCache);
+    }
+
+    EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    CriteriaOperatorListener getListener() {
+        return listener;
+    }
+
+    TextSearchDialect getTextSearchDialect() {
+        return textSearchDialect;
+    }
+
+    InListStrategy getInListStrategy() {
+        return inListStrategy;
+    }
+
+    SortPathResolver getSortPathResolver() {
+        return sortPathResolver;
+    }
+
+    /**
+     * The options of a service, all of them optional.
+     */
+    public static final class Builder {
+
+        private final EntityManager entityManager;
+        private CriteriaOperatorListener listener;
+        private TextSearchDialect textSearchDialect;
+        private InListStrategy inListStrategy = InListStrategy.parameters();
+
+        private Builder(EntityManager entityManager) {
+            this.entityManager = entityManager;
+        }
+
+        /**
+         * Sets the listener of all the queries executed by the builders and templates of the service.
+         *
+         * @param listener the listener, null for none
+         * @return the builder
+         */
+        public Builder listener(CriteriaOperatorListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the dialect of the full-text search operators.
+         *
+         * @param textSearchDialect the full-text search dialect of the database, null for none
+         * @return the builder
+         */
+        public Builder textSearchDialect(TextSearchDialect textSearchDialect) {
+            this.textSearchDialect = textSearchDialect;
+            return this;
+        }
+
+        /**
+         * Sets the strategy of the {@code in} operators, e.g. for lists of thousands of values.
+         *
+         * @param inListStrategy the strategy, null for a parameter per value
+         * @return the builder
+         */
+        public Builder inListStrategy(InListStrategy inListStrategy) {
+            this.inListStrategy = inListStrategy == null ? InListStrategy.parameters() : inListStrategy;
+            return this;
+        }
+
+        /**
+         * Creates the service.
+         *
+         * @return the service
+         * @throws CriteriaOperatorException if the persistence provider doesn't support the text search dialect
+         *                                    or the in list strategy
+         */
+        public CriteriaOperatorService build() {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            if (textSearchDialect != null) {
+                textSearchDialect.check(criteriaBuilder);
+            }
+            inListStrategy.check(criteriaBuilder);
+            return new CriteriaOperatorService(this);
+        }
+    }
 }
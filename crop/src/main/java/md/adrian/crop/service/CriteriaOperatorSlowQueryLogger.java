@@ -0,0 +1,41 @@
+package md.adrian.crop.service;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.time.Duration;
+
+/**
+ * Logs a warning for each query that takes at least the threshold, build and execution together.
+ * It uses the platform logger, which the logging framework of the application can be bridged to.
+ */
+public class CriteriaOperatorSlowQueryLogger implements CriteriaOperatorListener {
+
+    private static final Logger LOGGER = System.getLogger(CriteriaOperatorSlowQueryLogger.class.getName());
+
+    private final Duration threshold;
+
+    /**
+     * @param threshold the duration from which a query is logged
+     */
+    public CriteriaOperatorSlowQueryLogger(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void onQuery(CriteriaOperatorQueryEvent event) {
+        if (event.totalTime().compareTo(threshold) >= 0 && LOGGER.isLoggable(Level.WARNING)) {
+            LOGGER.log(Level.WARNING, "slow {0} query of {1} took {2} ms (build {3} ms, execution {4} ms), "
+                    + "shape [{5}], joins {6}, rows {7}, page size {8}, offset {9}",
+                event.kind(),
+                event.rootType().getSimpleName(),
+                event.totalTime().toMillis(),
+                event.buildTime().toMillis(),
+                event.executionTime().toMillis(),
+                event.shape(),
+                event.joins(),
+                event.rows(),
+                event.pageSize(),
+                event.offset());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package md.adrian.crop.service;
+
+import md.adrian.crop.CriteriaOperatorOrder;
+import md.adrian.crop.CriteriaOperatorPage;
+import md.adrian.crop.exception.CriteriaOperatorException;
+import md.adrian.crop.operator.InListStrategy;
+import md.adrian.crop.operator.TextSearchDialect;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable, thread-safe match and join chain declared once for a root entity and a search type.
+ * Each request binds its search object to the template, which avoids rebuilding the chain per query.
+ * Criteria queries are cached per query shape, so requests with the same operators set only bind their values.
+ *
+ * @param <ROOT> the root type
+ * @param <SEARCH> the type containing criteria operator fields
+ */
+public class CriteriaOperatorTemplate<ROOT, SEARCH> {
+
+    private final CriteriaOperatorService service;
+    private final Class<ROOT> rootType;
+    private final Class<SEARCH> searchType;
+    private final List<CriteriaOperatorMatch<SEARCH>> matches;
+    private final LruCache<String, CriteriaQuery<?>> queryCache;
+    private final CriteriaOperatorResultCache resultCache;
+    private final Set<String> sortable;
+
+    CriteriaOperatorTemplate(
+            CriteriaOperatorService service,
+            Class<ROOT> rootType,
+            Class<SEARCH> searchType,
+            List<CriteriaOperatorMatch<SEARCH>> matches,
+            int queryCacheSize,
+            CriteriaOperatorResultCache resultCache,
+            Set<String> sortable
+    ) {
+        this.service = service;
+        this.rootType = rootType;
+        this.searchType = searchType;
+        this.matches = matches;
+        this.queryCache = queryCacheSize > 0 ? new LruCache<>(queryCacheSize) : null;
+        this.resultCache = resultCache;
+        this.sortable = sortable;
+    }
+
+    /**
+     * Binds the search object to the template.
+     * The returned builder can still be extended with additional matches that apply only to it.
+     *
+     * @param searchCriteria the object containing criteria operator fields
+     * @param order          the query order
+     * @param page           the query page
+     * @return a builder
+     * @throws CriteriaOperatorException if the search object is not of the search type of the template
+     */
+    public CriteriaOperatorBuilder<ROOT, SEARCH> create(SEARCH searchCriteria, CriteriaOperatorOrder order, CriteriaOperatorPage page) {
+        return new CriteriaOperatorBuilder<>(this, checkSearchType(searchCriteria), order, page);
+    }
+
+    /**
+     * Checks the search object against the search type, since the matches of the template read its fields
+     * and a search object of another type, passed through an unchecked cast, would fail only once the query is built.
+     */
+    private SEARCH checkSearchType(SEARCH searchCriteria) {
+        if (searchCriteria != null && !searchType.isInstance(searchCriteria)) {
+            throw new CriteriaOperatorException(
+                searchCriteria.getClass().getName() + " is not a search object of type " + searchType.getName()
+            );
+        }
+        return searchCriteria;
+    }
+
+    /**
+     * Binds the search object to the template.
+     *
+     * @param searchCriteria the object containing criteria operator fields
+     * @return a builder
+     */
+    public CriteriaOperatorBuilder<ROOT, SEARCH> create(SEARCH searchCriteria) {
+        return create(searchCriteria, null, null);
+    }
+
+    /**
+     * Executes the searches with as few queries as possible, instead of a query each.
+     * Up to {@value CriteriaOperatorBuilder#BATCH_SIZE} searches are combined into one query, which selects the entities
+     * that match any of them along with a flag per search, then the entities are assigned back to the searches they match.
+     * The to-one associations are joined with left joins in the combined query, and the searches can't join collections
+     * other than with {@code exists} subqueries. Searches that can't be satisfied are not part of the query.
+     *
+     * @param searchCriteria the objects containing criteria operator fields
+     * @param order          the order of the results of each search
+     * @return the entities of each search, in the order of the search objects
+     * @throws CriteriaOperatorException if a search joins a collection
+     */
+    public List<List<ROOT>> getResultLists(List<SEARCH> searchCriteria, CriteriaOperatorOrder order) {
+        searchCriteria.forEach(this::checkSearchType);
+        return new CriteriaOperatorBuilder<>(this, null, order, null).getResultLists(searchCriteria);
+    }
+
+    /**
+     * Provides the usage of the cache holding one criteria query per query shape,
+     * useful to size it with {@link CriteriaOperatorTemplateBuilder#queryCacheSize(int)}.
+     *
+     * @return the statistics, all zero if the cache is disabled
+     */
+    public CacheStatistics getQueryCacheStatistics() {
+        return queryCache == null ? new CacheStatistics(0, 0, 0, 0) : queryCache.getStatistics();
+    }
+
+    EntityManager getEntityManager() {
+        return service.getEntityManager();
+    }
+
+    Class<ROOT> getRootType() {
+        return rootType;
+    }
+
+    List<CriteriaOperatorMatch<SEARCH>> getMatches() {
+        return matches;
+    }
+
+    LruCache<String, CriteriaQuery<?>> getQueryCache() {
+        return queryCache;
+    }
+
+    CriteriaOperatorResultCache getResultCache() {
+        return resultCache;
+    }
+
+    CriteriaOperatorListener getListener() {
+        return service.getListener();
+    }
+
+    TextSearchDialect getTextSearchDialect() {
+        return service.getTextSearchDialect();
+    }
+
+    InListStrategy getInListStrategy() {
+        return service.getInListStrategy();
+    }
+
+    SortPathResolver getSortPathResolver() {
+        return service.getSortPathResolver();
+    }
+
+    Set<String> getSortable() {
+        return sortable;
+    }
+}
@@ -0,0 +1,148 @@
+package md.adrian.crop.service;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import md.adrian.crop.operator.CriteriaOperator;
+import jakarta.persistence.metamodel.ListAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * {@inheritDoc}
+ * The builder declares the match and join chain once, without a search object, and compiles it into a template.
+ *
+ * @param <ROOT> the root type
+ * @param <SEARCH> the type containing criteria operator fields
+ */
+public class CriteriaOperatorTemplateBuilder<ROOT, SEARCH> extends BaseCriteriaOperatorBuilder<ROOT, SEARCH> {
+
+    static final int DEFAULT_QUERY_CACHE_SIZE = 128;
+
+    private final CriteriaOperatorService service;
+    private final Class<ROOT> rootType;
+    private final Class<SEARCH> searchType;
+    private int queryCacheSize = DEFAULT_QUERY_CACHE_SIZE;
+    private CriteriaOperatorResultCache resultCache;
+    private Set<String> sortable;
+
+    CriteriaOperatorTemplateBuilder(CriteriaOperatorService service, Class<ROOT> rootType, Class<SEARCH> searchType) {
+        this.service = service;
+        this.rootType = rootType;
+        this.searchType = searchType;
+    }
+
+    @Override
+    public <SEARCH_FIELD> CriteriaOperatorTemplateBuilder<ROOT, SEARCH> match(
+        SingularAttribute<ROOT, SEARCH_FIELD> attribute,
+        Function<SEARCH, ? extends CriteriaOperator<SEARCH_FIELD>> search
+    ) {
+        addRootMatch(attribute, search);
+        return this;
+    }
+
+    /**
+     * Join with a {@code SingularAttribute}, for example in a many-to-one relation.
+     *
+     * @param joinAttribute the attribute that is doing the join
+     * @return the builder
+     * @param <JOIN> the joined type
+     */
+    public <JOIN> JoinCriteriaOperatorBuilder<JOIN, SEARCH, ROOT, CriteriaOperatorTemplateBuilder<ROOT, SEARCH>> join(
+        SingularAttribute<ROOT, JOIN> joinAttribute
+    ) {
+        return startJoin(this, joinAttribute);
+    }
+
+    /**
+     * Join with a {@code ListAttribute}, the matches are grouped into an {@code exists} subquery.
+     * For example, in a one-to-many relation.
+     * Earlier versions joined the collection to the root instead, use {@link JoinStrategy#JOIN} to keep doing so.
+     *
+     * @param joinAttribute the attribute that is doing the join
+     * @return the builder
+     * @param <JOIN> the joined type
+     */
+    public <JOIN> JoinCriteriaOperatorBuilder<JOIN, SEARCH, ROOT, CriteriaOperatorTemplateBuilder<ROOT, SEARCH>> join(
+        ListAttribute<ROOT, JOIN> joinAttribute
+    ) {
+        return join(joinAttribute, JoinStrategy.EXISTS);
+    }
+
+    /**
+     * Join with a {@code ListAttribute} using the given strategy.
+     *
+     * @param joinAttribute the attribute that is doing the join
+     * @param joinStrategy the join strategy
+     * @return the builder
+     * @param <JOIN> the joined type
+     */
+    public <JOIN> JoinCriteriaOperatorBuilder<JOIN, SEARCH, ROOT, CriteriaOperatorTemplateBuilder<ROOT, SEARCH>> join(
+        ListAttribute<ROOT, JOIN> joinAttribute,
+        JoinStrategy joinStrategy
+    ) {
+        return startJoin(this, joinAttribute, joinStrategy);
+    }
+
+    /**
+     * Sets the maximum number of query shapes, distinct combinations of set operators, order and page,
+     * whose criteria queries are kept by the template. The least recently used shape is evicted first.
+     *
+     * @param queryCacheSize the maximum number of cached queries, 0 disables the cache
+     * @return the builder
+     */
+    public CriteriaOperatorTemplateBuilder<ROOT, SEARCH> queryCacheSize(int queryCacheSize) {
+        this.queryCacheSize = queryCacheSize;
+        return this;
+    }
+
+    /**
+     * Caches the projected lists and the counts of the searches {@see CriteriaOperatorResultCache}.
+     * The cache can be shared with other templates, it is invalidated by the changes reported to the service.
+     *
+     * @param resultCache the result cache, null for none
+     * @return the builder
+     */
+    public CriteriaOperatorTemplateBuilder<ROOT, SEARCH> resultCache(CriteriaOperatorResultCache resultCache) {
+        this.resultCache = resultCache;
+        return this;
+    }
+
+    /**
+     * Restricts the order of the searches to the given attributes, e.g. those that are indexed,
+     * so clients can't request sorts that the database has to perform in memory.
+     * The id appended to the order of paged searches is always allowed.
+     *
+     * @param sortable the dotted attribute names, e.g. {@code petType.code}
+     * @return the builder
+     * @throws CriteriaOperatorException if an attribute can't be sorted by
+     */
+    public CriteriaOperatorTemplateBuilder<ROOT, SEARCH> sortable(String... sortable) {
+        for (String name : sortable) {
+            service.getSortPathResolver().resolve(service.getEntityManager().getMetamodel(), rootType, name);
+        }
+        this.sortable = Set.of(sortable);
+        return this;
+    }
+
+    /**
+     * Compiles the declared matches into an immutable template.
+     *
+     * @return the template
+     */
+    public CriteriaOperatorTemplate<ROOT, SEARCH> build() {
+        if (resultCache != null) {
+            service.registerResultCache(resultCache);
+        }
+        return new CriteriaOperatorTemplate<>(
+            service,
+            rootType,
+            searchType,
+            List.copyOf(getMatches()),
+            queryCacheSize,
+            resultCache,
+            sortable
+        );
+    }
+}
@@ -0,0 +1,76 @@
+package md.adrian.crop.service;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups the matches of a collection join into a correlated {@code exists} subquery,
+ * so that the root is matched once no matter how many elements of the collection satisfy the predicates.
+ *
+ * @param <SEARCH> the type containing criteria operator fields
+ */
+final class ExistsCriteriaOperatorMatch<SEARCH> implements CriteriaOperatorMatch<SEARCH> {
+
+    private final List<CriteriaOperatorMatch<SEARCH>> matches;
+
+    ExistsCriteriaOperatorMatch(List<CriteriaOperatorMatch<SEARCH>> matches) {
+        this.matches = List.copyOf(matches);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A subquery with operators that can't be satisfied doesn't exist, neither does the root.
+     */
+    @Override
+    public boolean normalize(SEARCH searchRequest, NormalizedOperators normalized) {
+        boolean satisfiable = true;
+        for (CriteriaOperatorMatch<SEARCH> match : matches) {
+            satisfiable &= match.normalize(searchRequest, normalized);
+        }
+        return satisfiable;
+    }
+
+    @Override
+    public void bind(SEARCH searchRequest, CriteriaOperatorQueryParameters parameters) {
+        String prefix = parameters.getPrefix();
+        for (int i = 0; i < matches.size(); i++) {
+            parameters.setPrefix(prefix + i + "_");
+            matches.get(i).bind(searchRequest, parameters);
+        }
+        parameters.setPrefix(prefix);
+    }
+
+    /**
+     * {@inheritDoc}
+     * No subquery is added if none of the grouped matches results in a predicate.
+     */
+    @Override
+    public Predicate apply(SEARCH searchRequest, CriteriaOperatorQueryContext context, CriteriaOperatorQueryParameters parameters) {
+        CriteriaBuilder criteriaBuilder = context.getCriteriaBuilder();
+        Subquery<Integer> subquery = context.getQuery().subquery(Integer.class);
+        Root<?> correlatedRoot = subquery.correlate(context.getRoot());
+        var subqueryContext = new CriteriaOperatorQueryContext(criteriaBuilder, subquery, correlatedRoot);
+
+        String prefix = parameters.getPrefix();
+        List<Predicate> predicates = new ArrayList<>(matches.size());
+        for (int i = 0; i < matches.size(); i++) {
+            parameters.setPrefix(prefix + i + "_");
+            Predicate predicate = matches.get(i).apply(searchRequest, subqueryContext, parameters);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        parameters.setPrefix(prefix);
+
+        if (predicates.isEmpty()) {
+            return null;
+        }
+        subquery.select(criteriaBuilder.literal(1)).where(predicates.toArray(Predicate[]::new));
+        return criteriaBuilder.exists(subquery);
+    }
+}
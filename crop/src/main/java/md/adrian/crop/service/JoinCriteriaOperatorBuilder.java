@@ -2,6 +2,7 @@ package md.adrian.crop.service;
 
 import md.adrian.crop.operator.CriteriaOperator;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.ListAttribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 
 import java.util.function.Function;
@@ -19,16 +20,32 @@ public class JoinCriteriaOperatorBuilder<ROOT, SEARCH, PARENT_ROOT, PARENT exten
         extends BaseCriteriaOperatorBuilder<ROOT, SEARCH> {
 
     private final PARENT parent;
-    private final Function<Root<PARENT_ROOT>, Path<ROOT>> joinPathFunction;
+    private final Function<CriteriaOperatorQueryContext, From<?, ROOT>> joinPathFunction;
+    private final boolean exists;
 
     JoinCriteriaOperatorBuilder(
-            SEARCH searchRequest,
             PARENT parent,
-            Function<Root<PARENT_ROOT>, Path<ROOT>> joinPathFunction
+            Function<CriteriaOperatorQueryContext, From<?, ROOT>> joinPathFunction
     ) {
-        super(searchRequest);
         this.parent = parent;
         this.joinPathFunction = joinPathFunction;
+        this.exists = false;
+    }
+
+    @SuppressWarnings("unchecked")
+    JoinCriteriaOperatorBuilder(
+            PARENT parent,
+            ListAttribute<PARENT_ROOT, ROOT> joinAttribute,
+            JoinStrategy joinStrategy
+    ) {
+        this.parent = parent;
+        this.exists = joinStrategy == JoinStrategy.EXISTS;
+        this.joinPathFunction = context -> {
+            if (!exists) {
+                context.markCollectionJoined();
+            }
+            return context.join((Root<PARENT_ROOT>) context.getRoot(), joinAttribute);
+        };
     }
 
     @Override
@@ -36,13 +53,7 @@ public class JoinCriteriaOperatorBuilder<ROOT, SEARCH, PARENT_ROOT, PARENT exten
             SingularAttribute<ROOT, SEARCH_FIELD> attribute,
             Function<SEARCH, ? extends CriteriaOperator<SEARCH_FIELD>> search
     ) {
-        CriteriaOperator<SEARCH_FIELD> criteriaOperator = search.apply(searchRequest);
-        if (criteriaOperator != null) {
-            addRootPredicateSupplier((cb, parentRoot) -> {
-                Path<ROOT> joinPath = joinPathFunction.apply((Root<PARENT_ROOT>) parentRoot);
-                return criteriaOperator.match(cb, joinPath.get(attribute));
-            });
-        }
+        addMatch(new AttributeCriteriaOperatorMatch<>(search, context -> joinPathFunction.apply(context).get(attribute)));
         return this;
     }
 
@@ -58,21 +69,22 @@ public class JoinCriteriaOperatorBuilder<ROOT, SEARCH, PARENT_ROOT, PARENT exten
             SingularAttribute<ROOT, JOIN_ROOT> joinAttribute
     ) {
         return new JoinCriteriaOperatorBuilder<>(
-                searchRequest,
                 this,
-                parentRoot -> {
-                    Path<ROOT> joinPath = joinPathFunction.apply((Root<PARENT_ROOT>) parentRoot);
-                    return joinPath.get(joinAttribute);
-                }
+                context -> context.join(joinPathFunction.apply(context), joinAttribute, JoinType.INNER)
         );
     }
 
     /**
      * Ends current builder so that you can continue with the previous one/parent.
+     * The matches of an {@link JoinStrategy#EXISTS} collection join are added to the parent as a single subquery.
      * @return parent builder
      */
     public PARENT endJoin() {
-        parent.addAllRootPredicateSupplier(this);
+        if (exists) {
+            parent.addExistsMatch(this);
+        } else {
+            parent.addAllMatches(this);
+        }
         return parent;
     }
 }
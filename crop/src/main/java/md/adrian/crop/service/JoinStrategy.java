@@ -0,0 +1,19 @@
+package md.adrian.crop.service;
+
+/**
+ * Defines how the matches of a collection join are applied to the query.
+ */
+public enum JoinStrategy {
+
+    /**
+     * The matches are grouped into a correlated {@code exists} subquery, so each root appears at most once.
+     */
+    EXISTS,
+
+    /**
+     * The collection is joined to the root, the query then selects and counts distinct roots.
+     * This was the only strategy of earlier versions, the default is now {@link #EXISTS}.
+     * The query can only be ordered by the selected attributes, as the rows are distinct.
+     */
+    JOIN
+}
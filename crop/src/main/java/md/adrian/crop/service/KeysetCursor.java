@@ -0,0 +1,54 @@
+package md.adrian.crop.service;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes the sort key values of the last row of a page into an opaque, URL safe token and back.
+ * A null value is encoded as {@value #NULL}, which the URL encoding of a value never results in.
+ */
+final class KeysetCursor {
+
+    private static final String NULL = "!";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * @param values the text of the values {@see ValueParser#format(Object, Class)}, null for null values
+     * @return the cursor
+     */
+    static String encode(List<String> values) {
+        List<String> encoded = new ArrayList<>(values.size());
+        for (String value : values) {
+            encoded.add(value == null ? NULL : URLEncoder.encode(value, StandardCharsets.UTF_8));
+        }
+        byte[] token = String.join(",", encoded).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * @param cursor the cursor
+     * @return the text of the values, null for null values
+     * @throws CriteriaOperatorException if the cursor is not valid
+     */
+    static List<String> decode(String cursor) {
+        String token;
+        try {
+            token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new CriteriaOperatorException("invalid cursor");
+        }
+        List<String> values = new ArrayList<>();
+        for (String value : token.split(",", -1)) {
+            values.add(value.equals(NULL) ? null : URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+}
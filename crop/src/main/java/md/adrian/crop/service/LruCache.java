@@ -0,0 +1,57 @@
+package md.adrian.crop.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache bounded by size which evicts the least recently used entry.
+ * Values are created outside the lock, so concurrent misses of the same key may create it twice.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    LruCache(int maximumSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    V computeIfAbsent(K key, Function<K, V> valueFunction) {
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        V created = valueFunction.apply(key);
+        synchronized (entries) {
+            V existing = entries.putIfAbsent(key, created);
+            return existing != null ? existing : created;
+        }
+    }
+
+    CacheStatistics getStatistics() {
+        synchronized (entries) {
+            return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package md.adrian.crop.service;
+
+import md.adrian.crop.operator.CriteriaOperator;
+import md.adrian.crop.operator.ParameterizedCriteriaOperator;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The normalized criteria operators of an execution {@see ParameterizedCriteriaOperator#normalized()},
+ * by the operators set in the search object, which are left unchanged.
+ * An operator that can't be satisfied is replaced by one that matches nothing,
+ * so a query built anyway, e.g. by {@see CriteriaOperatorBuilder#getQuery()}, has no results.
+ */
+final class NormalizedOperators {
+
+    private static final CriteriaOperator<?> UNSATISFIABLE = (criteriaBuilder, expression) -> criteriaBuilder.disjunction();
+
+    private final Map<CriteriaOperator<?>, CriteriaOperator<?>> operators = new IdentityHashMap<>();
+    private boolean satisfiable = true;
+
+    /**
+     * Normalizes the operator once, operators set in several search objects of a batch are shared.
+     *
+     * @param criteriaOperator the operator set in the search object
+     * @return false if no value can satisfy the operator
+     */
+    boolean normalize(ParameterizedCriteriaOperator<?> criteriaOperator) {
+        CriteriaOperator<?> normalized = operators.get(criteriaOperator);
+        if (normalized == null) {
+            normalized = criteriaOperator.normalized();
+            operators.put(criteriaOperator, normalized == null ? UNSATISFIABLE : normalized);
+        }
+        return normalized != null && normalized != UNSATISFIABLE;
+    }
+
+    /**
+     * Provides the normalized operator.
+     *
+     * @param criteriaOperator the operator set in the search object, or null
+     * @return the normalized operator, or the given one if it wasn't normalized
+     * @param <T> the type of the operator
+     */
+    @SuppressWarnings("unchecked")
+    <T> CriteriaOperator<T> get(CriteriaOperator<T> criteriaOperator) {
+        if (criteriaOperator == null) {
+            return null;
+        }
+        return (CriteriaOperator<T>) operators.getOrDefault(criteriaOperator, criteriaOperator);
+    }
+
+    void markUnsatisfiable() {
+        satisfiable = false;
+    }
+
+    /**
+     * @return false if the operators of the search object can't all be satisfied, so the query has no results
+     */
+    boolean isSatisfiable() {
+        return satisfiable;
+    }
+}
@@ -0,0 +1,31 @@
+package md.adrian.crop.service;
+
+/**
+ * A point-in-time snapshot of a result cache usage.
+ *
+ * @param hitCount the number of lookups that found a result
+ * @param missCount the number of lookups that had to execute the query
+ * @param evictionCount the number of results removed to respect the maximum size
+ * @param expirationCount the number of results removed once their time to live passed
+ * @param invalidationCount the number of results removed because the entities they depend on changed
+ * @param size the current number of results
+ * @param rowCount the current number of cached rows, a count being a single row, the measure of the memory footprint
+ */
+public record ResultCacheStatistics(
+    long hitCount,
+    long missCount,
+    long evictionCount,
+    long expirationCount,
+    long invalidationCount,
+    int size,
+    long rowCount
+) {
+
+    /**
+     * @return the ratio of hits to all lookups, or 0 when there were no lookups
+     */
+    public double hitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
@@ -0,0 +1,37 @@
+package md.adrian.crop.service;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.function.BiFunction;
+
+/**
+ * Applies a predicate added through {@link BaseCriteriaOperatorBuilder#addRootPredicateSupplier(BiFunction)}.
+ * The predicate may hold values outside of parameters, so the query is marked as not cacheable.
+ *
+ * @param <SEARCH> the type containing criteria operator fields
+ */
+final class RootPredicateCriteriaOperatorMatch<SEARCH> implements CriteriaOperatorMatch<SEARCH> {
+
+    private final BiFunction<CriteriaBuilder, Root<?>, Predicate> rootPredicateSupplier;
+
+    RootPredicateCriteriaOperatorMatch(BiFunction<CriteriaBuilder, Root<?>, Predicate> rootPredicateSupplier) {
+        this.rootPredicateSupplier = rootPredicateSupplier;
+    }
+
+    @Override
+    public boolean normalize(SEARCH searchRequest, NormalizedOperators normalized) {
+        return true;
+    }
+
+    @Override
+    public void bind(SEARCH searchRequest, CriteriaOperatorQueryParameters parameters) {
+        parameters.markNotCacheable();
+    }
+
+    @Override
+    public Predicate apply(SEARCH searchRequest, CriteriaOperatorQueryContext context, CriteriaOperatorQueryParameters parameters) {
+        return rootPredicateSupplier.apply(context.getCriteriaBuilder(), context.getRoot());
+    }
+}
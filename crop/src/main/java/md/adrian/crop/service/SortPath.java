@@ -0,0 +1,152 @@
+package md.adrian.crop.service;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A sort attribute of the root type resolved against the metamodel from its dotted name, e.g. {@code petType.code}:
+ * the chain of to-one associations to join and the basic attribute at its end.
+ */
+final class SortPath {
+
+    private final List<SingularAttribute<?, ?>> associations;
+    private final SingularAttribute<?, ?> attribute;
+    /**
+     * The members that read the associations and the attribute, getters where there are some,
+     * since the fields of a lazy association proxy are not initialized.
+     */
+    private final List<Member> readers;
+
+    private SortPath(List<SingularAttribute<?, ?>> associations, SingularAttribute<?, ?> attribute) {
+        this.associations = associations;
+        this.attribute = attribute;
+        List<Member> readers = new ArrayList<>(associations.size() + 1);
+        associations.forEach(association -> readers.add(getReader(association)));
+        readers.add(getReader(attribute));
+        this.readers = List.copyOf(readers);
+    }
+
+    /**
+     * Resolves the name against the metamodel.
+     *
+     * @param metamodel the metamodel
+     * @param rootType the root type
+     * @param name the dotted name, without the descending prefix
+     * @return the sort path
+     * @throws CriteriaOperatorException if an attribute is unknown, is not a to-one association, or the last one is not basic
+     */
+    static SortPath resolve(Metamodel metamodel, Class<?> rootType, String name) {
+        String[] names = name.split("\\.", -1);
+        List<SingularAttribute<?, ?>> associations = new ArrayList<>(names.length - 1);
+        ManagedType<?> type = metamodel.entity(rootType);
+        for (int i = 0; i < names.length - 1; i++) {
+            SingularAttribute<?, ?> association = getAttribute(type, names[i], name);
+            if (!association.isAssociation()) {
+                throw new CriteriaOperatorException("can't sort by " + name + ", " + names[i] + " is not an association");
+            }
+            associations.add(association);
+            type = metamodel.managedType(association.getJavaType());
+        }
+        SingularAttribute<?, ?> attribute = getAttribute(type, names[names.length - 1], name);
+        if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+            throw new CriteriaOperatorException("can't sort by " + name + ", " + attribute.getName() + " is not a basic attribute");
+        }
+        return new SortPath(List.copyOf(associations), attribute);
+    }
+
+    private static SingularAttribute<?, ?> getAttribute(ManagedType<?> type, String attributeName, String name) {
+        for (SingularAttribute<?, ?> attribute : type.getSingularAttributes()) {
+            if (attribute.getName().equals(attributeName)) {
+                return attribute;
+            }
+        }
+        throw new CriteriaOperatorException("can't sort by " + name + ", unknown attribute " + attributeName);
+    }
+
+    private static Member getReader(SingularAttribute<?, ?> attribute) {
+        Member member = attribute.getJavaMember();
+        if (member instanceof Field field) {
+            String suffix = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+            String prefix = field.getType() == boolean.class ? "is" : "get";
+            try {
+                return field.getDeclaringClass().getMethod(prefix + suffix);
+            } catch (NoSuchMethodException e) {
+                return member;
+            }
+        }
+        return member;
+    }
+
+    /**
+     * Creates the path, joining the associations with left joins, so the rows without them are still sorted,
+     * or reusing the joins created earlier by the matches or the fetches.
+     *
+     * @param context the query context
+     * @param root the root
+     * @return the path of the sort attribute
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Path<?> toPath(CriteriaOperatorQueryContext context, From<?, ?> root) {
+        From from = root;
+        for (SingularAttribute association : associations) {
+            from = context.join(from, association, JoinType.LEFT);
+        }
+        return from.get((SingularAttribute) attribute);
+    }
+
+    /**
+     * @return true if the value can be null, as the attribute or an association on the path is optional
+     */
+    boolean isOptional() {
+        return attribute.isOptional() || associations.stream().anyMatch(SingularAttribute::isOptional);
+    }
+
+    Class<?> getJavaType() {
+        return attribute.getJavaType();
+    }
+
+    /**
+     * Reads the value of the sort attribute from the entity, null if an association on the path is null.
+     *
+     * @param entity the root entity
+     * @return the value
+     * @throws CriteriaOperatorException if an attribute can't be read
+     */
+    Object read(Object entity) {
+        Object value = entity;
+        for (Member reader : readers) {
+            if (value == null) {
+                return null;
+            }
+            value = read(value, reader);
+        }
+        return value;
+    }
+
+    private static Object read(Object entity, Member member) {
+        try {
+            if (member instanceof Field field) {
+                field.setAccessible(true);
+                return field.get(entity);
+            } else if (member instanceof Method method) {
+                method.setAccessible(true);
+                return method.invoke(entity);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new CriteriaOperatorException("can't read " + member.getName() + " of " + entity.getClass().getName());
+        }
+        throw new CriteriaOperatorException("can't read " + member.getName() + " of " + entity.getClass().getName());
+    }
+}
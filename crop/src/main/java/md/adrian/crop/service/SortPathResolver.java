@@ -0,0 +1,33 @@
+package md.adrian.crop.service;
+
+import jakarta.persistence.metamodel.Metamodel;
+
+/**
+ * Resolves the sort attribute names against the metamodel once per root type and name, shared by the builders
+ * and templates of a service. Unknown names fail the resolution and are not cached.
+ */
+class SortPathResolver {
+
+    static final int DEFAULT_CACHE_SIZE = 256;
+
+    private final LruCache<Key, SortPath> sortPaths;
+
+    SortPathResolver(int cacheSize) {
+        this.sortPaths = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * Provides the sort path of the name {@see SortPath#resolve}.
+     *
+     * @param metamodel the metamodel
+     * @param rootType the root type
+     * @param name the dotted name, without the descending prefix
+     * @return the sort path
+     */
+    SortPath resolve(Metamodel metamodel, Class<?> rootType, String name) {
+        return sortPaths.computeIfAbsent(new Key(rootType, name), key -> SortPath.resolve(metamodel, rootType, name));
+    }
+
+    private record Key(Class<?> rootType, String name) {
+    }
+}
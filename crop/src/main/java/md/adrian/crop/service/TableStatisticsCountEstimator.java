@@ -0,0 +1,48 @@
+package md.adrian.crop.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Reads the row count estimate that the database keeps in its statistics of the table, with a native query
+ * whose single parameter is the table name.
+ * The table is named by the {@code Table} annotation of the entity, or by the entity name,
+ * converted as the database stores the names of unquoted identifiers.
+ */
+final class TableStatisticsCountEstimator implements CriteriaOperatorCountEstimator {
+
+    private final String sql;
+    private final UnaryOperator<String> identifierCase;
+
+    TableStatisticsCountEstimator(String sql, UnaryOperator<String> identifierCase) {
+        this.sql = sql;
+        this.identifierCase = identifierCase;
+    }
+
+    /**
+     * {@inheritDoc}
+     * A negative estimate, of a table that was never analyzed, is no estimate.
+     */
+    @Override
+    public OptionalLong estimate(EntityManager entityManager, Class<?> rootType) {
+        List<?> estimates = entityManager.createNativeQuery(sql)
+                .setParameter(1, identifierCase.apply(getTableName(entityManager, rootType)))
+                .getResultList();
+        if (estimates.isEmpty() || !(estimates.get(0) instanceof Number estimate) || estimate.longValue() < 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(estimate.longValue());
+    }
+
+    private static String getTableName(EntityManager entityManager, Class<?> rootType) {
+        Table table = rootType.getAnnotation(Table.class);
+        if (table != null && !table.name().isEmpty()) {
+            return table.name();
+        }
+        return entityManager.getMetamodel().entity(rootType).getName();
+    }
+}
@@ -0,0 +1,132 @@
+package md.adrian.crop.service;
+
+import md.adrian.crop.exception.CriteriaOperatorException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Parses the text representation, as produced by {@code toString()}, of the basic attribute types.
+ * Enums are represented by their names, and {@code java.util.Date} by its instant, as its {@code toString()}
+ * can't be parsed back.
+ */
+final class ValueParser {
+
+    private ValueParser() {
+    }
+
+    static Object parse(String value, Class<?> type) {
+        return parser(type).apply(value);
+    }
+
+    /**
+     * Resolves the parser of a type once, for values parsed repeatedly.
+     *
+     * @param type the type
+     * @return the parser
+     */
+    static Function<String, Object> parser(Class<?> type) {
+        Function<String, Object> parser = typedParser(type);
+        return value -> {
+            try {
+                return parser.apply(value);
+            } catch (RuntimeException e) {
+                throw new CriteriaOperatorException("can't parse '" + value + "' as " + type.getSimpleName());
+            }
+        };
+    }
+
+    /**
+     * Tells whether the values of a type can be parsed.
+     *
+     * @param type the type
+     * @return true if there is a parser of the type
+     */
+    static boolean supports(Class<?> type) {
+        try {
+            typedParser(type);
+            return true;
+        } catch (CriteriaOperatorException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Provides the text representation of a value that the parser of the type parses back.
+     *
+     * @param value the value, not null
+     * @param type the attribute type the value is parsed as
+     * @return the text
+     */
+    static String format(Object value, Class<?> type) {
+        if (value instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        } else if (type == Date.class) {
+            Date date = (Date) value;
+            return (date instanceof Timestamp timestamp ? timestamp.toInstant() : Instant.ofEpochMilli(date.getTime())).toString();
+        }
+        return value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, Object> typedParser(Class<?> type) {
+        if (type == String.class) {
+            return value -> value;
+        } else if (type == Long.class || type == long.class) {
+            return Long::valueOf;
+        } else if (type == Integer.class || type == int.class) {
+            return Integer::valueOf;
+        } else if (type == Short.class || type == short.class) {
+            return Short::valueOf;
+        } else if (type == Double.class || type == double.class) {
+            return Double::valueOf;
+        } else if (type == Float.class || type == float.class) {
+            return Float::valueOf;
+        } else if (type == Boolean.class || type == boolean.class) {
+            return Boolean::valueOf;
+        } else if (type == BigDecimal.class) {
+            return BigDecimal::new;
+        } else if (type == BigInteger.class) {
+            return BigInteger::new;
+        } else if (type == LocalDate.class) {
+            return LocalDate::parse;
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime::parse;
+        } else if (type == LocalTime.class) {
+            return LocalTime::parse;
+        } else if (type == Instant.class) {
+            return Instant::parse;
+        } else if (type == OffsetDateTime.class) {
+            return OffsetDateTime::parse;
+        } else if (type == OffsetTime.class) {
+            return OffsetTime::parse;
+        } else if (type == ZonedDateTime.class) {
+            return ZonedDateTime::parse;
+        } else if (type == java.sql.Date.class) {
+            return java.sql.Date::valueOf;
+        } else if (type == Time.class) {
+            return Time::valueOf;
+        } else if (type == Timestamp.class) {
+            return Timestamp::valueOf;
+        } else if (type == Date.class) {
+            return value -> Timestamp.from(Instant.parse(value));
+        } else if (type == UUID.class) {
+            return UUID::fromString;
+        } else if (type.isEnum()) {
+            return value -> Enum.valueOf((Class<? extends Enum>) type, value);
+        }
+        throw new CriteriaOperatorException("unsupported type " + type.getName());
+    }
+}
@@ -1,3 +1,6 @@
+/**
+ * The criteria operators and the services that build the JPA criteria queries from them.
+ */
 module md.adrian.crop {
     requires jakarta.persistence;
 